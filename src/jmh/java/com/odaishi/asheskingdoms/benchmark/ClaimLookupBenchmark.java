@@ -0,0 +1,55 @@
+/**
+ * CLAIM LOOKUP BENCHMARK
+ *
+ * Measures KingdomManager.getKingdomAt and isClaimed, the lookups run by every
+ * protection callback, across synthetic worlds of increasing size.
+ */
+package com.odaishi.asheskingdoms.benchmark;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimLookupBenchmark {
+    private static final int PROBES = 4096;
+
+    @Param({"1", "100", "1000"})
+    public int kingdoms;
+
+    @Param({"1000", "10000", "100000"})
+    public int claims;
+
+    private ChunkPos[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        probes = SyntheticWorld.install(kingdoms, claims).chunkProbes(PROBES);
+    }
+
+    private ChunkPos nextProbe() {
+        ChunkPos probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public Kingdom getKingdomAt() {
+        return KingdomManager.getKingdomAt(nextProbe());
+    }
+
+    @Benchmark
+    public boolean isClaimed() {
+        return KingdomManager.isClaimed(nextProbe());
+    }
+}
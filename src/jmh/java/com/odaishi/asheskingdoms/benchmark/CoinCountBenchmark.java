@@ -0,0 +1,54 @@
+/**
+ * COIN COUNT BENCHMARK
+ *
+ * Measures InventoryCoins.countCoins over a full player-sized inventory.
+ *
+ * NOTES:
+ * - Numismatic Overhaul is not loaded headless, so its coin items are not
+ *   registered; the inventory holds vanilla stacks and the benchmark measures
+ *   the per-slot registry lookup and id comparison every call pays
+ * - "sparse" leaves most slots empty, "full" fills every slot
+ */
+package com.odaishi.asheskingdoms.benchmark;
+
+import com.odaishi.asheskingdoms.utils.InventoryCoins;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoinCountBenchmark {
+    private static final int PLAYER_INVENTORY_SIZE = 41; // 36 main + 4 armor + offhand
+    private static final Item[] FILLER = {Items.COBBLESTONE, Items.OAK_LOG, Items.IRON_INGOT, Items.BREAD, Items.TORCH};
+
+    @Param({"sparse", "full"})
+    public String fill;
+
+    private SimpleInventory inventory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticWorld.bootstrapMinecraft();
+        Random random = new Random(SyntheticWorld.SEED);
+        inventory = new SimpleInventory(PLAYER_INVENTORY_SIZE);
+        for (int i = 0; i < PLAYER_INVENTORY_SIZE; i++) {
+            if (fill.equals("sparse") && random.nextInt(4) != 0) continue;
+            inventory.setStack(i, new ItemStack(FILLER[random.nextInt(FILLER.length)], 1 + random.nextInt(64)));
+        }
+    }
+
+    @Benchmark
+    public long countCoins() {
+        return InventoryCoins.countCoins(inventory);
+    }
+}
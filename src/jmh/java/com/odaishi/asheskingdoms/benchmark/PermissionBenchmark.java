@@ -0,0 +1,66 @@
+/**
+ * PERMISSION CHECK BENCHMARK
+ *
+ * Measures Kingdom.hasPermission for a mix of members and outsiders, alone and
+ * combined with the chunk lookup the protection callbacks perform first.
+ */
+package com.odaishi.asheskingdoms.benchmark;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionBenchmark {
+    private static final int PROBES = 4096;
+    private static final String[] PERMISSIONS = {"build", "destroy", "switch", "container", "door", "claim", "invite", "kick"};
+
+    @Param({"1", "100", "1000"})
+    public int kingdoms;
+
+    @Param({"1000", "10000", "100000"})
+    public int claims;
+
+    private ChunkPos[] chunks;
+    private UUID[] players;
+    private Kingdom[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticWorld world = SyntheticWorld.install(kingdoms, claims);
+        chunks = world.chunkProbes(PROBES);
+        players = world.playerProbes(PROBES);
+
+        List<Kingdom> all = world.kingdoms;
+        targets = new Kingdom[PROBES];
+        for (int i = 0; i < PROBES; i++) targets[i] = all.get(i % all.size());
+    }
+
+    @Benchmark
+    public boolean hasPermission() {
+        int i = next;
+        next = (i + 1) & (PROBES - 1);
+        return targets[i].hasPermission(players[i], PERMISSIONS[i & 7]);
+    }
+
+    /** The lookup-then-check sequence used by the block and entity callbacks. */
+    @Benchmark
+    public boolean protectionCheck() {
+        int i = next;
+        next = (i + 1) & (PROBES - 1);
+        Kingdom kingdom = KingdomManager.getKingdomAt(chunks[i]);
+        return kingdom == null || kingdom.hasPermission(players[i], PERMISSIONS[i & 7]);
+    }
+}
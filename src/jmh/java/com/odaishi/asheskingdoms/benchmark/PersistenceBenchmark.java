@@ -0,0 +1,54 @@
+/**
+ * PERSISTENCE BENCHMARK
+ *
+ * Measures a full KingdomManager save and load against a temporary file. Every
+ * save rewrites every kingdom, so cost grows with total claims and members.
+ */
+package com.odaishi.asheskingdoms.benchmark;
+
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class PersistenceBenchmark {
+    @Param({"1", "100", "1000"})
+    public int kingdoms;
+
+    @Param({"1000", "10000", "100000"})
+    public int claims;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticWorld.install(kingdoms, claims);
+        file = File.createTempFile("asheskingdoms-bench", ".json");
+        KingdomManager.saveToFile(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        KingdomManager.saveToFile(file);
+        return file.length();
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        KingdomManager.loadFromFile(file);
+        return KingdomManager.getAllKingdoms().size();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * SYNTHETIC WORLD GENERATOR
+ *
+ * Builds deterministic kingdom layouts for the JMH benchmarks and loads them
+ * into KingdomManager through the real persistence path, without a server.
+ *
+ * LAYOUT:
+ * - Kingdoms sit on a square grid, one square territory each, with a one-chunk
+ *   gap of wilderness between neighbours
+ * - Claims are split evenly across kingdoms; the home chunk is the territory corner
+ * - Every kingdom has a leader plus a fixed set of members across all ranks
+ * - A fixed seed means every run of a given size sees the same world
+ *
+ * PROBES:
+ * - Chunk and player probe arrays are pre-generated so benchmarks measure only
+ *   the lookup, not the random number generator
+ */
+package com.odaishi.asheskingdoms.benchmark;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public final class SyntheticWorld {
+    public static final long SEED = 0x4B494E47L;
+    private static final String[] MEMBER_RANKS = {
+            Kingdom.RANK_ASSISTANT, Kingdom.RANK_OFFICER, Kingdom.RANK_OFFICER,
+            Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER,
+            Kingdom.RANK_ALLY, Kingdom.RANK_ALLY
+    };
+
+    private static boolean bootstrapped;
+
+    public final List<Kingdom> kingdoms = new ArrayList<>();
+    public final List<UUID> players = new ArrayList<>();
+    private final int extent;
+    private final Random random = new Random(SEED);
+
+    private SyntheticWorld(int kingdomCount, int totalClaims) {
+        int perKingdom = Math.max(1, totalClaims / kingdomCount);
+        int side = (int) Math.ceil(Math.sqrt(perKingdom));
+        int columns = (int) Math.ceil(Math.sqrt(kingdomCount));
+        this.extent = columns * (side + 1);
+
+        for (int i = 0; i < kingdomCount; i++) {
+            int originX = (i % columns) * (side + 1);
+            int originZ = (i / columns) * (side + 1);
+
+            Set<ChunkPos> claims = new HashSet<>();
+            for (int c = 0; c < perKingdom; c++) claims.add(new ChunkPos(originX + c % side, originZ + c / side));
+
+            UUID leader = nextUuid();
+            Map<UUID, String> members = new HashMap<>();
+            members.put(leader, Kingdom.RANK_LEADER);
+            players.add(leader);
+            for (String rank : MEMBER_RANKS) {
+                UUID member = nextUuid();
+                members.put(member, rank);
+                players.add(member);
+            }
+
+            Kingdom kingdom = new Kingdom("Kingdom" + i, leader, members, claims, new ChunkPos(originX, originZ));
+            kingdom.deposit(1_000_000);
+            kingdoms.add(kingdom);
+        }
+    }
+
+    /** Generates a world and installs it into KingdomManager via a save/load round trip. */
+    public static SyntheticWorld install(int kingdomCount, int totalClaims) throws IOException {
+        SyntheticWorld world = new SyntheticWorld(kingdomCount, totalClaims);
+
+        KingdomManager.kingdoms.clear();
+        world.kingdoms.forEach(k -> KingdomManager.kingdoms.put(k.getName(), k));
+
+        File file = File.createTempFile("asheskingdoms-bench", ".json");
+        try {
+            KingdomManager.saveToFile(file);
+            KingdomManager.loadFromFile(file);
+        } finally {
+            file.delete();
+        }
+
+        world.kingdoms.clear();
+        world.kingdoms.addAll(KingdomManager.getAllKingdoms());
+        return world;
+    }
+
+    /** Random chunks across the whole grid; roughly the claimed fraction of them land inside a territory. */
+    public ChunkPos[] chunkProbes(int count) {
+        ChunkPos[] probes = new ChunkPos[count];
+        for (int i = 0; i < count; i++) probes[i] = new ChunkPos(random.nextInt(extent), random.nextInt(extent));
+        return probes;
+    }
+
+    /** Random known players, with one in eight replaced by an outsider. */
+    public UUID[] playerProbes(int count) {
+        UUID[] probes = new UUID[count];
+        for (int i = 0; i < count; i++) probes[i] = random.nextInt(8) == 0 ? nextUuid() : players.get(random.nextInt(players.size()));
+        return probes;
+    }
+
+    /** Registers vanilla content so item stacks and registries work headless. */
+    public static synchronized void bootstrapMinecraft() {
+        if (bootstrapped) return;
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        bootstrapped = true;
+    }
+
+    private UUID nextUuid() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -82,15 +82,30 @@
 package com.odaishi.asheskingdoms;
 
 import com.odaishi.asheskingdoms.commands.KingdomClaimCommand;
+import com.odaishi.asheskingdoms.commands.KingdomBorderCommand;
+import com.odaishi.asheskingdoms.commands.KingdomMapCommand;
 import com.odaishi.asheskingdoms.commands.KingdomCommand;
 import com.odaishi.asheskingdoms.commands.KingdomMemberCommand;
 import com.odaishi.asheskingdoms.commands.KingdomSettingsCommand;
 import com.odaishi.asheskingdoms.commands.KingdomPersonalClaimCommand;
 import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomProtection;
+import com.odaishi.asheskingdoms.metrics.PerfStats;
+import com.odaishi.asheskingdoms.metrics.PrometheusExporter;
+import com.odaishi.asheskingdoms.metrics.ProtectionTimings;
+import com.odaishi.asheskingdoms.metrics.TickProfiler;
+import com.odaishi.asheskingdoms.kingdoms.BorderCrossingTracker;
+import com.odaishi.asheskingdoms.kingdoms.BorderParticleVisualizer;
+import com.odaishi.asheskingdoms.kingdoms.WebMapExporter;
+import com.odaishi.asheskingdoms.metrics.ProtectionTimings.Handler;
 import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import com.odaishi.asheskingdoms.noapi.EconomyBatch;
 import com.odaishi.asheskingdoms.noapi.NoApi;
+import com.odaishi.asheskingdoms.noapi.NoApiAccess;
 import com.odaishi.asheskingdoms.noapi.NORuntimeAdapter;
+import com.odaishi.asheskingdoms.noapi.PendingCredits;
 import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
 import com.odaishi.asheskingdoms.utils.ModConfig;
 
 import net.fabricmc.api.ModInitializer;
@@ -100,6 +115,7 @@ import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.player.AttackBlockCallback;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.fabricmc.fabric.api.event.player.UseEntityCallback;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.WorldSavePath;
@@ -138,16 +154,26 @@ public class AshesKingdoms implements ModInitializer {
 		INSTANCE = this;
 
 		ServerTickEvents.END_SERVER_TICK.register(server -> {
-			KingdomWarManager.onServerTick();
+			TickProfiler.time(TickProfiler.Subsystem.WAR, KingdomWarManager::onServerTick);
 		});
 
 		// Load configuration
 		config = ModConfig.loadConfig(new File("config"));
 
 		ServerTickEvents.END_SERVER_TICK.register(server -> {
-			KingdomManager.INSTANCE.onServerTick();
+			TickProfiler.time(TickProfiler.Subsystem.UPKEEP, KingdomManager.INSTANCE::onServerTick);
 		});
 
+		ServerTickEvents.END_SERVER_TICK.register(server -> {
+			if (getConfig().borderNotificationsEnabled) {
+				TickProfiler.time(TickProfiler.Subsystem.BORDERS, () -> BorderCrossingTracker.onServerTick(server));
+			}
+			TickProfiler.time(TickProfiler.Subsystem.BORDER_PARTICLES, () -> BorderParticleVisualizer.onServerTick(server, getConfig()));
+		});
+
+		// Registered after the mod's other tick handlers so it closes out their timings
+		ServerTickEvents.END_SERVER_TICK.register(server -> TickProfiler.endTick());
+
 
 		// Load configuration - FIXED: Store the returned config
 		config = ModConfig.loadConfig(new File("config")); // ← FIXED THIS LINE
@@ -160,6 +186,8 @@ public class AshesKingdoms implements ModInitializer {
 			KingdomWarCommand.register(dispatcher);
 			KingdomSettingsCommand.register(dispatcher);
 			KingdomPersonalClaimCommand.register(dispatcher);
+			KingdomMapCommand.register(dispatcher);
+			KingdomBorderCommand.register(dispatcher);
 		});
 
 		// Server lifecycle hooks
@@ -167,22 +195,42 @@ public class AshesKingdoms implements ModInitializer {
 			this.server = server;
 			KingdomManager.setServer(server);
 			NORuntimeAdapter.setServer(server);
+			EconomyBatch.setServer(server);
+			PerfStats.reset(server.getThread());
 			loadData();
 			registerProtectionEvents();
 			startCleanupScheduler();
+			PrometheusExporter.start(server, getConfig());
+			WebMapExporter.start(server, getConfig());
 		});
 
 		CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
 			KingdomCommand.register(dispatcher);
 		});
 
+		// Deliver credits queued by batched payouts while the player was offline
+		ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+			PendingCredits.deliver(handler.player, NoApiAccess.get());
+			KingdomManager.onPlayerJoin(handler.player);
+		});
+
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+			KingdomManager.onPlayerLeave(handler.player);
+			BorderCrossingTracker.forget(handler.player);
+			BorderParticleVisualizer.forget(handler.player);
+		});
+
 		ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
 			stopCleanupScheduler();
+			PrometheusExporter.stop();
+			WebMapExporter.stop();
+			BorderCrossingTracker.clear();
+			BorderParticleVisualizer.clear();
 			saveData();
 		});
 
-		System.out.println("[AshesKingdoms] Using item-based economy system.");
-		System.out.println("[AshesKingdoms] Mod initialized successfully.");
+		KingdomLog.info("Using item-based economy system.");
+		KingdomLog.info("Mod initialized successfully.");
 	}
 
 	private void startWarCaptureMonitor() {
@@ -190,7 +238,7 @@ public class AshesKingdoms implements ModInitializer {
 			if (server != null && !server.isStopped()) {
 				server.execute(() -> {
 					// Monitor active captures and update bossbars
-					KingdomWarManager.updateActiveCaptures(server);
+					TickProfiler.time(TickProfiler.Subsystem.CAPTURE_MONITOR, () -> KingdomWarManager.updateActiveCaptures(server));
 				});
 			}
 		}, 1, 1, TimeUnit.SECONDS); // Check every second
@@ -202,8 +250,10 @@ public class AshesKingdoms implements ModInitializer {
 		scheduler.scheduleAtFixedRate(() -> {
 			if (server != null && !server.isStopped()) {
 				server.execute(() -> {
-					KingdomManager.cleanupExpired();
-					System.out.println("[AshesKingdoms] Cleaned up expired invites and personal claims");
+					TickProfiler.time(TickProfiler.Subsystem.CLEANUP, KingdomManager::cleanupExpired);
+					KingdomLog.debug("Cleaned up expired invites and personal claims");
+					String timings = ProtectionTimings.summaryLine();
+					if (timings != null) KingdomLog.info(timings);
 				});
 			}
 		}, 5, 5, TimeUnit.MINUTES);
@@ -229,180 +279,160 @@ public class AshesKingdoms implements ModInitializer {
 		// Block placement protection with personal claim support
 		AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
 			if (player.isCreative()) return ActionResult.PASS;
+			long start = ProtectionTimings.begin(world);
 
 			// WAR CAPTURE CHECK - Add this at the beginning
 			ChunkPos chunkPos = new ChunkPos(pos);
 			if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) {
 				player.sendMessage(net.minecraft.text.Text.of("§cYou cannot build while territory is being captured!"), false);
-				return ActionResult.FAIL;
+				return ProtectionTimings.end(Handler.ATTACK_BLOCK, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
 
-			Kingdom kingdom = KingdomManager.getKingdomAt(new net.minecraft.util.math.ChunkPos(pos));
-			if (kingdom != null) {
-				// Check personal claims first
-				if (kingdom.hasPersonalClaim(new net.minecraft.util.math.ChunkPos(pos))) {
-					if (!kingdom.hasPersonalClaimAccess(player.getUuid(), new net.minecraft.util.math.ChunkPos(pos))) {
-						player.sendMessage(net.minecraft.text.Text.of("§cThis area is personally claimed by someone else!"), false);
-						return ActionResult.FAIL;
-					}
-					return ActionResult.PASS; // Personal claim access granted
-				}
-
-				// Then check kingdom permissions
-				if (!kingdom.hasPermission(player, "build")) {
-					player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to build here!"), false);
-					return ActionResult.FAIL;
-				}
+			KingdomProtection.Outcome outcome = KingdomProtection.evaluate(player.getUuid(), chunkPos, "build");
+			if (outcome == KingdomProtection.Outcome.PERSONAL_DENIED) {
+				player.sendMessage(net.minecraft.text.Text.of("§cThis area is personally claimed by someone else!"), false);
+			} else if (outcome == KingdomProtection.Outcome.CLAIMED_DENIED) {
+				player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to build here!"), false);
 			}
-			return ActionResult.PASS;
+			return ProtectionTimings.end(Handler.ATTACK_BLOCK, ProtectionTimings.Outcome.of(outcome), start,
+					outcome.isAllowed() ? ActionResult.PASS : ActionResult.FAIL);
 		});
 
 		// Block breaking protection with personal claim support
 		AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
 			if (player.isCreative()) return ActionResult.PASS;
+			long start = ProtectionTimings.begin(world);
 
 			// WAR CAPTURE CHECK - Add this at the beginning
 			ChunkPos chunkPos = new ChunkPos(pos);
 			if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) {
 				player.sendMessage(net.minecraft.text.Text.of("§cYou cannot break blocks while territory is being captured!"), false);
-				return ActionResult.FAIL;
+				return ProtectionTimings.end(Handler.ATTACK_BLOCK, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
 
-			Kingdom kingdom = KingdomManager.getKingdomAt(new net.minecraft.util.math.ChunkPos(pos));
-			if (kingdom != null) {
-				// Check personal claims first
-				if (kingdom.hasPersonalClaim(new net.minecraft.util.math.ChunkPos(pos))) {
-					if (!kingdom.hasPersonalClaimAccess(player.getUuid(), new net.minecraft.util.math.ChunkPos(pos))) {
-						player.sendMessage(net.minecraft.text.Text.of("§cThis area is personally claimed by someone else!"), false);
-						return ActionResult.FAIL;
-					}
-					return ActionResult.PASS; // Personal claim access granted
-				}
-
-				// Then check kingdom permissions
-				if (!kingdom.hasPermission(player, "destroy")) {
-					player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to break blocks here!"), false);
-					return ActionResult.FAIL;
-				}
+			KingdomProtection.Outcome outcome = KingdomProtection.evaluate(player.getUuid(), chunkPos, "destroy");
+			if (outcome == KingdomProtection.Outcome.PERSONAL_DENIED) {
+				player.sendMessage(net.minecraft.text.Text.of("§cThis area is personally claimed by someone else!"), false);
+			} else if (outcome == KingdomProtection.Outcome.CLAIMED_DENIED) {
+				player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to break blocks here!"), false);
 			}
-			return ActionResult.PASS;
+			return ProtectionTimings.end(Handler.ATTACK_BLOCK, ProtectionTimings.Outcome.of(outcome), start,
+					outcome.isAllowed() ? ActionResult.PASS : ActionResult.FAIL);
 		});
 
 		// Enhanced container protection with settings check
 		UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
 			if (player.isCreative()) return ActionResult.PASS;
+			long start = ProtectionTimings.begin(world);
 
 			net.minecraft.util.math.BlockPos pos = hitResult.getBlockPos();
-			net.minecraft.block.BlockState state = world.getBlockState(pos);
 
 			// WAR CAPTURE CHECK - Add this at the beginning
 			ChunkPos chunkPos = new ChunkPos(pos);
 			if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) {
 				player.sendMessage(net.minecraft.text.Text.of("§cYou cannot interact with blocks while territory is being captured!"), false);
-				return ActionResult.FAIL;
+				return ProtectionTimings.end(Handler.USE_BLOCK, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
 
-			Kingdom kingdom = KingdomManager.getKingdomAt(new net.minecraft.util.math.ChunkPos(pos));
-			if (kingdom != null) {
-				// Check personal claims first
-				if (kingdom.hasPersonalClaim(new net.minecraft.util.math.ChunkPos(pos))) {
-					if (!kingdom.hasPersonalClaimAccess(player.getUuid(), new net.minecraft.util.math.ChunkPos(pos))) {
-						return ActionResult.FAIL;
-					}
-					return ActionResult.PASS; // Personal claim access granted
-				}
-
-				// Check if it's a container and kingdom settings allow access
-				if (state.getBlock() instanceof net.minecraft.block.ChestBlock ||
-						state.getBlock() instanceof net.minecraft.block.BarrelBlock ||
-						state.getBlock() instanceof net.minecraft.block.ShulkerBoxBlock ||
-						state.getBlock() instanceof net.minecraft.block.HopperBlock ||
-						state.getBlock() instanceof net.minecraft.block.DispenserBlock ||
-						state.getBlock() instanceof net.minecraft.block.DropperBlock) {
-
-					if (!kingdom.hasPermission(player, "container")) {
-						player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to open containers here!"), false);
-						return ActionResult.FAIL;
-					}
-				}
-
-				// Door protection with settings check
-				if (state.getBlock() instanceof net.minecraft.block.DoorBlock ||
-						state.getBlock() instanceof net.minecraft.block.FenceGateBlock ||
-						state.getBlock() instanceof net.minecraft.block.TrapdoorBlock) {
-
-					if (!kingdom.hasPermission(player, "door")) {
-						player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to use doors here!"), false);
-						return ActionResult.FAIL;
-					}
-				}
-
-				// Switch/button protection
-				if (state.getBlock() instanceof net.minecraft.block.LeverBlock ||
-						state.getBlock() instanceof net.minecraft.block.ButtonBlock) {
-
-					if (!kingdom.hasPermission(player, "switch")) {
-						player.sendMessage(net.minecraft.text.Text.of("§cYou don't have permission to use switches here!"), false);
-						return ActionResult.FAIL;
-					}
-				}
+			Kingdom kingdom = KingdomManager.getKingdomAt(chunkPos);
+			if (kingdom == null) return ProtectionTimings.end(Handler.USE_BLOCK, ProtectionTimings.Outcome.WILDERNESS, start, ActionResult.PASS);
+
+			// Only containers, doors and switches need a rank permission; personal claims guard every block
+			String permission = usePermissionFor(world.getBlockState(pos).getBlock());
+			KingdomProtection.Outcome outcome = KingdomProtection.evaluate(kingdom, player.getUuid(), chunkPos, permission);
+			if (outcome == KingdomProtection.Outcome.CLAIMED_DENIED) {
+				player.sendMessage(net.minecraft.text.Text.of(switch (permission) {
+					case "container" -> "§cYou don't have permission to open containers here!";
+					case "door" -> "§cYou don't have permission to use doors here!";
+					default -> "§cYou don't have permission to use switches here!";
+				}), false);
 			}
-			return ActionResult.PASS;
+			return ProtectionTimings.end(Handler.USE_BLOCK, ProtectionTimings.Outcome.of(outcome), start,
+					outcome.isAllowed() ? ActionResult.PASS : ActionResult.FAIL);
 		});
 
 		// PVP protection with kingdom settings enforcement
 		UseEntityCallback.EVENT.register((player, world, hand, entity, hitResult) -> {
 			if (player.isCreative()) return ActionResult.PASS;
 			if (!(entity instanceof net.minecraft.entity.player.PlayerEntity)) return ActionResult.PASS;
+			long start = ProtectionTimings.begin(world);
 
 			// WAR CAPTURE CHECK - Allow PVP during captures
 			ChunkPos chunkPos = new ChunkPos(entity.getBlockPos());
 			if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) {
 				// PVP is always allowed during war captures
-				return ActionResult.PASS;
+				return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_ALLOWED, start, ActionResult.PASS);
 			}
 
-			Kingdom kingdom = KingdomManager.getKingdomAt(new net.minecraft.util.math.ChunkPos(entity.getBlockPos()));
-			if (kingdom != null) {
-				// Check kingdom settings for PVP
-				if (!kingdom.getSettings().getSetting("pvp")) {
-					player.sendMessage(net.minecraft.text.Text.of("§cPVP is disabled in this kingdom!"), false);
-					return ActionResult.FAIL;
-				}
+			Kingdom kingdom = KingdomManager.getKingdomAt(chunkPos);
+			if (kingdom == null) return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.WILDERNESS, start, ActionResult.PASS);
+
+			// Check kingdom settings for PVP
+			if (!kingdom.getSettings().getSetting("pvp")) {
+				player.sendMessage(net.minecraft.text.Text.of("§cPVP is disabled in this kingdom!"), false);
+				return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
-			return ActionResult.PASS;
+			return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_ALLOWED, start, ActionResult.PASS);
 		});
 
 		// Mob damage protection with settings check
 		UseEntityCallback.EVENT.register((player, world, hand, entity, hitResult) -> {
 			if (player.isCreative()) return ActionResult.PASS;
 			if (entity instanceof net.minecraft.entity.player.PlayerEntity) return ActionResult.PASS;
+			long start = ProtectionTimings.begin(world);
 
 			// WAR CAPTURE CHECK - Add this at the beginning
 			ChunkPos chunkPos = new ChunkPos(entity.getBlockPos());
 			if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) {
 				player.sendMessage(net.minecraft.text.Text.of("§cYou cannot damage mobs while territory is being captured!"), false);
-				return ActionResult.FAIL;
+				return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
 
-			Kingdom kingdom = KingdomManager.getKingdomAt(new net.minecraft.util.math.ChunkPos(entity.getBlockPos()));
-			if (kingdom != null && !kingdom.hasPermission(player, "mobDamage")) {
+			Kingdom kingdom = KingdomManager.getKingdomAt(chunkPos);
+			if (kingdom == null) return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.WILDERNESS, start, ActionResult.PASS);
+			if (!kingdom.hasPermission(player, "mobDamage")) {
 				player.sendMessage(net.minecraft.text.Text.of("§cYou can't damage mobs here!"), false);
-				return ActionResult.FAIL;
+				return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_DENIED, start, ActionResult.FAIL);
 			}
-			return ActionResult.PASS;
+			return ProtectionTimings.end(Handler.USE_ENTITY, ProtectionTimings.Outcome.CLAIMED_ALLOWED, start, ActionResult.PASS);
 		});
 	}
 
+	/** Rank permission needed to use a block, or null if using it needs none. */
+	private static String usePermissionFor(net.minecraft.block.Block block) {
+		if (block instanceof net.minecraft.block.ChestBlock ||
+				block instanceof net.minecraft.block.BarrelBlock ||
+				block instanceof net.minecraft.block.ShulkerBoxBlock ||
+				block instanceof net.minecraft.block.HopperBlock ||
+				block instanceof net.minecraft.block.DispenserBlock ||
+				block instanceof net.minecraft.block.DropperBlock) {
+			return "container";
+		}
+		if (block instanceof net.minecraft.block.DoorBlock ||
+				block instanceof net.minecraft.block.FenceGateBlock ||
+				block instanceof net.minecraft.block.TrapdoorBlock) {
+			return "door";
+		}
+		if (block instanceof net.minecraft.block.LeverBlock ||
+				block instanceof net.minecraft.block.ButtonBlock) {
+			return "switch";
+		}
+		return null;
+	}
+
 	/** Save kingdoms data to file */
 	public void saveData() {
 		if (server != null) {
 			try {
 				KingdomManager.saveToFile();
-				System.out.println("[AshesKingdoms] Kingdom data saved.");
+				KingdomLog.info("Kingdom data saved.");
 			} catch (Exception e) {
-				System.err.println("[AshesKingdoms] Failed to save kingdom data: " + e.getMessage());
-				e.printStackTrace();
+				KingdomLog.error("Failed to save kingdom data", e);
+			}
+			try {
+				PendingCredits.save();
+			} catch (Exception e) {
+				KingdomLog.error("Failed to save pending credits", e);
 			}
 		}
 	}
@@ -412,10 +442,15 @@ public class AshesKingdoms implements ModInitializer {
 		if (server != null) {
 			try {
 				KingdomManager.loadFromFile();
-				System.out.println("[AshesKingdoms] Kingdom data loaded.");
+				KingdomLog.info("Kingdom data loaded: {} kingdoms.", KingdomManager.getAllKingdoms().size());
+			} catch (Exception e) {
+				KingdomLog.error("Failed to load kingdom data", e);
+			}
+			// Separate so a bad kingdoms.json cannot leave the credit queue without a file to save to
+			try {
+				PendingCredits.load(new File(server.getRunDirectory().toFile(), "asheskingdoms"));
 			} catch (Exception e) {
-				System.err.println("[AshesKingdoms] Failed to load kingdom data: " + e.getMessage());
-				e.printStackTrace();
+				KingdomLog.error("Failed to load pending credits", e);
 			}
 		}
 	}
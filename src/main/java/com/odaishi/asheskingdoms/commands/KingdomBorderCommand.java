@@ -0,0 +1,67 @@
+/**
+ * BORDER DISPLAY COMMAND HANDLER
+ *
+ * Turns the particle border display on and off for the calling player.
+ *
+ * COMMANDS:
+ * - /kingdom border - Toggles the display
+ * - /kingdom border show - Draws nearby kingdom borders with particles
+ * - /kingdom border hide - Stops drawing them
+ *
+ * NOTES:
+ * - Drawing is done by BorderParticleVisualizer; the setting lasts until
+ *   the player logs out
+ */
+
+package com.odaishi.asheskingdoms.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.odaishi.asheskingdoms.kingdoms.BorderParticleVisualizer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+public class KingdomBorderCommand {
+    public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(
+                literal("kingdom")
+                        .then(literal("border")
+                                .executes(KingdomBorderCommand::toggle)
+                                .then(literal("show").executes(KingdomBorderCommand::show))
+                                .then(literal("hide").executes(KingdomBorderCommand::hide)))
+        );
+    }
+
+    private static int toggle(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+        return BorderParticleVisualizer.isShowing(player) ? hide(context) : show(context);
+    }
+
+    private static int show(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        if (!BorderParticleVisualizer.show(player)) {
+            player.sendMessage(Text.of("§eBorders are already shown. Use §a/kingdom border hide §eto turn them off."), false);
+            return 0;
+        }
+        player.sendMessage(Text.of("§aShowing kingdom borders. §7Green: yours, aqua: allies, red: enemies, orange: others"), false);
+        return 1;
+    }
+
+    private static int hide(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        if (!BorderParticleVisualizer.hide(player)) {
+            player.sendMessage(Text.of("§eBorders are not shown."), false);
+            return 0;
+        }
+        player.sendMessage(Text.of("§aKingdom borders hidden."), false);
+        return 1;
+    }
+}
@@ -4,8 +4,14 @@
  * Handles chunk claiming operations for kingdom territory expansion.
  * Provides the primary interface for players to claim land for their kingdom.
  *
- * COMMAND:
+ * COMMANDS:
  * - /kingdom claim - Claims the current chunk for player's kingdom
+ * - /kingdom claim rect <x1> <z1> <x2> <z2> - Claims a rectangle of chunks (chunk coordinates,
+ *   limited to the world border)
+ * - /kingdom claim radius <r> - Claims the square of chunks within r of the current chunk
+ * - /kingdom claim fill - Claims the unclaimed chunks enclosed by the kingdom's territory
+ * - /kingdom unclaim - Releases the current chunk
+ * - /kingdom unclaim rect <x1> <z1> <x2> <z2> | radius <r> - Releases the kingdom's chunks in an area
  *
  * FEATURES:
  * - Centralized claim logic through KingdomManager
@@ -22,6 +28,18 @@
  * - Kingdom must not exceed claim limit (25 chunks)
  * - Player must have sufficient coins for claim cost
  *
+ * BULK CLAIMS:
+ * - Rectangles larger than MAX_BULK_AREA are rejected before any chunk list is built
+ * - The whole area is validated at once (conflicts, limit, connectivity)
+ * - Chunks the kingdom already owns are skipped
+ * - Any conflict or detached chunk rejects the whole area
+ * - One payment for all chunks and a single save
+ *
+ * UNCLAIMING:
+ * - Requires the unclaim permission; the home chunk can never be released
+ * - Rejected if it would cut any territory off from the home chunk
+ * - No refund of the original claim cost
+ *
  * ECONOMY:
  * - Claims cost 10 silver (1000 bronze) after initial claim
  * - First claim is free (home territory)
@@ -44,14 +62,25 @@
 package com.odaishi.asheskingdoms.commands;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
 import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import static net.minecraft.server.command.CommandManager.argument;
 import static net.minecraft.server.command.CommandManager.literal;
 
 public class KingdomClaimCommand {
+    // Chunk coordinates inside the world border (30,000,000 blocks)
+    private static final int MAX_CHUNK_COORD = 30_000_000 >> 4;
 
     public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
         dispatcher.register(
@@ -71,7 +100,90 @@ public class KingdomClaimCommand {
 
                                     return 1;
                                 })
+                                .then(literal("rect")
+                                        .then(argument("x1", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                .then(argument("z1", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                        .then(argument("x2", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                                .then(argument("z2", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                                        .executes(context -> rect(context, true)))))))
+                                .then(literal("radius")
+                                        .then(argument("r", IntegerArgumentType.integer(0, 15))
+                                                .executes(context -> radius(context, true))))
+                                .then(literal("fill")
+                                        .executes(KingdomClaimCommand::claimFill))
+                        )
+                        .then(literal("unclaim")
+                                .executes(context -> {
+                                    ServerPlayerEntity player = context.getSource().getPlayer();
+                                    return player != null && KingdomManager.unclaimChunk(player) ? 1 : 0;
+                                })
+                                .then(literal("rect")
+                                        .then(argument("x1", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                .then(argument("z1", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                        .then(argument("x2", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                                .then(argument("z2", IntegerArgumentType.integer(-MAX_CHUNK_COORD, MAX_CHUNK_COORD))
+                                                                        .executes(context -> rect(context, false)))))))
+                                .then(literal("radius")
+                                        .then(argument("r", IntegerArgumentType.integer(0, 15))
+                                                .executes(context -> radius(context, false))))
                         )
         );
     }
+
+    private static int rect(CommandContext<ServerCommandSource> context, boolean claim) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        int x1 = IntegerArgumentType.getInteger(context, "x1"), z1 = IntegerArgumentType.getInteger(context, "z1");
+        int x2 = IntegerArgumentType.getInteger(context, "x2"), z2 = IntegerArgumentType.getInteger(context, "z2");
+        // Widen before subtracting so extreme corners cannot wrap around to a small or negative area
+        long area = ((long) Math.max(x1, x2) - Math.min(x1, x2) + 1) * ((long) Math.max(z1, z2) - Math.min(z1, z2) + 1);
+        if (area > KingdomManager.MAX_BULK_AREA) {
+            player.sendMessage(Text.of("§cArea too large! (max " + KingdomManager.MAX_BULK_AREA + " chunks)"), false);
+            return 0;
+        }
+
+        List<ChunkPos> chunks = rectangle(Math.min(x1, x2), Math.min(z1, z2), Math.max(x1, x2), Math.max(z1, z2));
+        return apply(player, chunks, claim);
+    }
+
+    private static int radius(CommandContext<ServerCommandSource> context, boolean claim) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        int r = IntegerArgumentType.getInteger(context, "r");
+        ChunkPos centre = new ChunkPos(player.getBlockPos());
+        return apply(player, rectangle(centre.x - r, centre.z - r, centre.x + r, centre.z + r), claim);
+    }
+
+    private static int apply(ServerPlayerEntity player, List<ChunkPos> chunks, boolean claim) {
+        boolean success = claim ? KingdomManager.claimChunks(player, chunks) : KingdomManager.unclaimChunks(player, chunks);
+        return success ? 1 : 0;
+    }
+
+    private static int claimFill(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        Kingdom kingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
+        if (kingdom == null) {
+            player.sendMessage(Text.of("§cYou are not in a kingdom!"), false);
+            return 0;
+        }
+
+        Set<ChunkPos> enclosed = KingdomManager.findEnclosedChunks(kingdom);
+        if (enclosed.isEmpty()) {
+            player.sendMessage(Text.of("§eYour territory encloses no unclaimed chunks."), false);
+            return 0;
+        }
+        return KingdomManager.claimChunks(player, enclosed) ? 1 : 0;
+    }
+
+    private static List<ChunkPos> rectangle(int minX, int minZ, int maxX, int maxZ) {
+        List<ChunkPos> chunks = new ArrayList<>((maxX - minX + 1) * (maxZ - minZ + 1));
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) chunks.add(new ChunkPos(x, z));
+        }
+        return chunks;
+    }
 }
\ No newline at end of file
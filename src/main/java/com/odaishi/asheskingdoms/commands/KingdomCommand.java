@@ -1,18 +1,32 @@
 package com.odaishi.asheskingdoms.commands;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.odaishi.asheskingdoms.AshesKingdoms;
 import com.odaishi.asheskingdoms.kingdoms.Kingdom;
 import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.KingdomSummaryCache;
+import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import com.odaishi.asheskingdoms.kingdoms.TerritoryGeometry;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.odaishi.asheskingdoms.metrics.LatencyHistogram;
+import com.odaishi.asheskingdoms.metrics.PerfStats;
+import com.odaishi.asheskingdoms.metrics.ProtectionTimings;
+import com.odaishi.asheskingdoms.metrics.TickProfiler;
 import com.odaishi.asheskingdoms.noapi.NoApiAccess;
+import com.odaishi.asheskingdoms.noapi.PendingCredits;
 import com.odaishi.asheskingdoms.utils.InventoryCoins;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 import static net.minecraft.server.command.CommandManager.*;
@@ -20,6 +34,7 @@ import static net.minecraft.server.command.CommandManager.*;
 public class KingdomCommand {
     private static final long KINGDOM_COST = 10000;
     private static final long WAR_DECLARATION_COST = 50000; // Fixed cost to declare war
+    private static final int MAX_SUGGESTIONS = 50; // completion results per keystroke
 
     public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
         dispatcher.register(literal("kingdom")
@@ -28,7 +43,13 @@ public class KingdomCommand {
                 .then(literal("leave").executes(context -> leaveKingdom(context)))
                 .then(literal("delete").executes(context -> deleteKingdom(context)))
                 .then(literal("confirm").then(literal("delete").executes(context -> confirmDelete(context))))
-                .then(literal("list").executes(context -> listKingdoms(context)))
+                .then(literal("list").executes(context -> listKingdoms(context, "name", 1))
+                        .then(argument("sort", StringArgumentType.word())
+                                .suggests((context, builder) -> suggestSorts(builder).buildFuture())
+                                .executes(context -> listKingdoms(context, StringArgumentType.getString(context, "sort"), 1))
+                                .then(argument("page", IntegerArgumentType.integer(1))
+                                        .executes(context -> listKingdoms(context, StringArgumentType.getString(context, "sort"),
+                                                IntegerArgumentType.getInteger(context, "page"))))))
                 .then(literal("info").executes(context -> kingdomInfo(context)))
 
                 // ==================== DIPLOMACY COMMANDS ====================
@@ -129,6 +150,14 @@ public class KingdomCommand {
                                                                     return 1;
                                                                 })
                                                         )
+                                                        .then(literal("timings")
+                                                                .executes(KingdomCommand::showTimings)
+                                                                .then(literal("reset").executes(KingdomCommand::resetTimings))
+                                                        )
+                                                        .then(literal("perf")
+                                                                .executes(KingdomCommand::showPerf)
+                                                                .then(literal("reset").executes(KingdomCommand::resetPerf))
+                                                        )
                                                 )
                                                 .then(literal("reclaim")
                                                         .executes(context -> {
@@ -163,6 +192,93 @@ public class KingdomCommand {
                                                 ));
     }
 
+    // ==================== ADMIN TIMINGS ====================
+    private static int showTimings(CommandContext<ServerCommandSource> context) {
+        long seconds = (System.currentTimeMillis() - ProtectionTimings.getResetAt()) / 1000;
+        int rate = AshesKingdoms.getConfig().protectionTimingSampleRate;
+        context.getSource().sendFeedback(() -> Text.literal("§6=== Protection Timings (last " + seconds + "s, " +
+                (rate <= 0 ? "sampling off" : "1 in " + rate + " sampled") + ") ==="), false);
+
+        boolean any = false;
+        for (ProtectionTimings.Handler handler : ProtectionTimings.Handler.values()) {
+            for (ProtectionTimings.Outcome outcome : ProtectionTimings.Outcome.values()) {
+                LatencyHistogram h = ProtectionTimings.get(handler, outcome);
+                if (h.count() == 0) continue;
+                any = true;
+                String line = String.format("§e%s §7%s: §fn=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus",
+                        handler, outcome.label, h.count(), h.mean() / 1000.0, h.percentile(0.50) / 1000.0,
+                        h.percentile(0.90) / 1000.0, h.percentile(0.99) / 1000.0, h.max() / 1000.0);
+                context.getSource().sendFeedback(() -> Text.literal(line), false);
+            }
+        }
+        if (!any) context.getSource().sendFeedback(() -> Text.literal("§7No samples recorded yet"), false);
+        return 1;
+    }
+
+    private static int resetTimings(CommandContext<ServerCommandSource> context) {
+        ProtectionTimings.reset();
+        return success(context, "Protection timings reset");
+    }
+
+    private static int showPerf(CommandContext<ServerCommandSource> context) {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - PerfStats.getResetAt());
+        LatencyHistogram saves = PerfStats.getSaveTimes();
+        int personalClaims = KingdomManager.getAllKingdoms().stream().mapToInt(Kingdom::getPersonalClaimCount).sum();
+        long allocated = PerfStats.getAllocatedSinceReset();
+
+        sendPerfLine(context, "§6=== AshesKingdoms Performance (last " + elapsedMs / 1000 + "s) ===");
+        sendPerfLine(context, String.format("§eSaves: §fn=%d mean=%.1fms p99=%.1fms max=%.1fms, last %s, total %s",
+                saves.count(), saves.mean() / 1e6, saves.percentile(0.99) / 1e6, saves.max() / 1e6,
+                formatBytes(PerfStats.getLastSaveBytes()), formatBytes(PerfStats.getTotalSaveBytes())));
+        // There is no write journal; the backlog is the coalesced upkeep save and queued offline credits
+        sendPerfLine(context, "§eWrite backlog: §fupkeep save " + (KingdomManager.isUpkeepSavePending() ? "pending" : "clean") +
+                ", pending credits " + PendingCredits.size());
+        sendPerfLine(context, "§eIndexes: §fkingdoms " + KingdomManager.getAllKingdoms().size() +
+                ", claimed chunks " + KingdomManager.getClaimedChunkCount() + ", personal claims " + personalClaims +
+                ", invites " + KingdomManager.getPendingInviteCount() + ", deletions " + KingdomManager.getPendingDeletionCount());
+        sendPerfLine(context, "§eWar: §factive wars " + KingdomWarManager.getActiveWarCount() +
+                ", active captures " + KingdomWarManager.getActiveCaptureCount() + ", boss bars " + KingdomWarManager.getBossBarCount());
+        sendPerfLine(context, "§eUpkeep queue: §f" + KingdomManager.getUpkeepQueueDepth() + " kingdoms");
+
+        for (ProtectionTimings.Handler handler : ProtectionTimings.Handler.values()) {
+            LatencyHistogram merged = new LatencyHistogram();
+            for (ProtectionTimings.Outcome outcome : ProtectionTimings.Outcome.values()) merged.add(ProtectionTimings.get(handler, outcome));
+            sendPerfLine(context, String.format("§e%s: §fn=%d p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus", handler,
+                    merged.count(), merged.percentile(0.50) / 1e3, merged.percentile(0.90) / 1e3,
+                    merged.percentile(0.99) / 1e3, merged.max() / 1e3));
+        }
+
+        sendPerfLine(context, String.format("§eTick cost (last %d ticks): §favg %.2fms (%.1f%% of 50ms), worst %.2fms",
+                TickProfiler.getWindowTicks(), TickProfiler.averageTotal() / 1e6,
+                TickProfiler.averageTotal() * 100.0 / TickProfiler.TICK_BUDGET_NANOS, TickProfiler.worstTotal() / 1e6));
+        for (TickProfiler.Subsystem subsystem : TickProfiler.Subsystem.values()) {
+            sendPerfLine(context, String.format("§7  %s: §favg %.3fms, worst %.3fms", subsystem,
+                    TickProfiler.average(subsystem) / 1e6, TickProfiler.worst(subsystem) / 1e6));
+        }
+
+        sendPerfLine(context, allocated < 0 ? "§eServer thread allocation: §7unavailable on this JVM" :
+                "§eServer thread allocation: §f" + formatBytes(allocated) + " (" + formatBytes(allocated * 1000 / elapsedMs) + "/s)");
+        return 1;
+    }
+
+    private static int resetPerf(CommandContext<ServerCommandSource> context) {
+        PerfStats.reset(context.getSource().getServer().getThread());
+        ProtectionTimings.reset();
+        TickProfiler.reset();
+        return success(context, "Performance counters reset");
+    }
+
+    private static void sendPerfLine(CommandContext<ServerCommandSource> context, String line) {
+        context.getSource().sendFeedback(() -> Text.literal(line), false);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KiB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MiB", bytes / (1024.0 * 1024));
+        return String.format("%.2f GiB", bytes / (1024.0 * 1024 * 1024));
+    }
+
     // ==================== DIPLOMACY COMMAND METHODS ====================
     private static int showRelations(CommandContext<ServerCommandSource> context) {
         ServerPlayerEntity player = context.getSource().getPlayer();
@@ -315,9 +431,8 @@ public class KingdomCommand {
         if (player != null) {
             Kingdom playerKingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
             if (playerKingdom != null) {
-                KingdomManager.getAllKingdoms().stream()
-                        .filter(k -> !k.getName().equals(playerKingdom.getName()))
-                        .forEach(k -> builder.suggest(k.getName()));
+                KingdomManager.getKingdomNameIndex().forEachMatch(builder.getRemaining(), MAX_SUGGESTIONS,
+                        name -> !name.equals(playerKingdom.getName()), builder::suggest);
             }
         }
         return builder; // RETURN BUILDER DIRECTLY, NO .buildFuture()
@@ -330,9 +445,7 @@ public class KingdomCommand {
         ServerPlayerEntity player = context.getSource().getPlayer();
         if (player != null) {
             Kingdom kingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
-            if (kingdom != null) {
-                kingdom.getAllies().forEach(builder::suggest);
-            }
+            if (kingdom != null) suggestMatching(kingdom.getAllies(), builder);
         }
         return builder;
     }
@@ -344,9 +457,7 @@ public class KingdomCommand {
         ServerPlayerEntity player = context.getSource().getPlayer();
         if (player != null) {
             Kingdom kingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
-            if (kingdom != null) {
-                kingdom.getEnemies().forEach(builder::suggest);
-            }
+            if (kingdom != null) suggestMatching(kingdom.getEnemies(), builder);
         }
         return builder;
     }
@@ -451,8 +562,16 @@ public class KingdomCommand {
                 success(context, "Kingdom deleted") : error(context, "Deletion failed");
     }
 
-    private static int listKingdoms(CommandContext<ServerCommandSource> context) {
-        KingdomManager.listKingdoms(context.getSource().getPlayer());
+    private static int listKingdoms(CommandContext<ServerCommandSource> context, String sortName, int page) {
+        KingdomSummaryCache.Sort sort = KingdomSummaryCache.Sort.byName(sortName);
+        if (sort == null) return error(context, "Sort by name, members, claims or treasury");
+
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) {
+            context.getSource().sendFeedback(() -> KingdomSummaryCache.renderPage(sort, page), false);
+            return 1;
+        }
+        KingdomManager.listKingdoms(player, sort, page);
         return 1;
     }
 
@@ -461,33 +580,43 @@ public class KingdomCommand {
         Kingdom kingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
         if (kingdom == null) return error(context, "Not in a kingdom");
 
-        player.sendMessage(Text.of("§6=== " + kingdom.getName() + " Info ==="), false);
-        player.sendMessage(Text.of("§bOwner: §a" + getPlayerName(kingdom.getOwner(), player.getServer())), false);
-        player.sendMessage(Text.of("§bMembers: §e" + kingdom.getMembers().size()), false);
-        player.sendMessage(Text.of("§bClaims: §6" + kingdom.getClaimedChunks().size()), false);
-        player.sendMessage(Text.of("§bYour Rank: §d" + kingdom.getRank(player)), false);
+        player.sendMessage(buildKingdomInfo(kingdom, KingdomSummaryCache.ownerName(kingdom), kingdom.getRank(player),
+                System.currentTimeMillis()), false);
+        return 1;
+    }
+
+    /** The /kingdom info message, as one multi-line Text, for a member holding {@code viewerRank}. */
+    public static Text buildKingdomInfo(Kingdom kingdom, String ownerName, String viewerRank, long now) {
+        List<String> lines = new ArrayList<>(12);
+        lines.add("§6=== " + kingdom.getName() + " Info ===");
+        lines.add("§bOwner: §a" + ownerName);
+        lines.add("§bMembers: §e" + kingdom.getMembers().size());
+        lines.add("§bClaims: §6" + kingdom.getClaimedChunks().size());
+        TerritoryGeometry.Outline outline = TerritoryGeometry.getOutline(kingdom);
+        lines.add("§bBorder: §6" + outline.perimeter() * 16 + " blocks §7(" + outline.polygons().size() + " area"
+                + (outline.polygons().size() == 1 ? "" : "s") + (outline.holes() > 0 ? ", " + outline.holes() + " holes" : "") + ")");
+        lines.add("§bYour Rank: §d" + viewerRank);
 
         // ADD FALLING STATE INFO HERE:
         if (kingdom.isFalling()) {
-            long timeFallen = System.currentTimeMillis() - kingdom.getFallingStartTime();
+            long timeFallen = now - kingdom.getFallingStartTime();
             long hoursLeft = (86400000 - timeFallen) / (60 * 60 * 1000);
             long hoursFallen = timeFallen / (60 * 60 * 1000);
 
-            player.sendMessage(Text.of("§c⚔ FALLING STATE ⚔"), false);
-            player.sendMessage(Text.of("§cTime fallen: §6" + hoursFallen + " hours"), false);
-            player.sendMessage(Text.of("§cTime until dissolution: §6" + hoursLeft + " hours"), false);
-            player.sendMessage(Text.of("§cReclaim cost: §6" + formatCurrency(kingdom.calculateDailyUpkeep())), false);
+            lines.add("§c⚔ FALLING STATE ⚔");
+            lines.add("§cTime fallen: §6" + hoursFallen + " hours");
+            lines.add("§cTime until dissolution: §6" + hoursLeft + " hours");
+            lines.add("§cReclaim cost: §6" + formatCurrency(kingdom.calculateDailyUpkeep()));
 
             if (hoursFallen <= 12) {
-                player.sendMessage(Text.of("§eOnly the leader can reclaim now"), false);
-                player.sendMessage(Text.of("§eUse: §a/kingdom reclaim"), false);
+                lines.add("§eOnly the leader can reclaim now");
+                lines.add("§eUse: §a/kingdom reclaim");
             } else {
-                player.sendMessage(Text.of("§eAny member can reclaim now"), false);
-                player.sendMessage(Text.of("§eUse: §a/kingdom reclaim"), false);
+                lines.add("§eAny member can reclaim now");
+                lines.add("§eUse: §a/kingdom reclaim");
             }
         }
-
-        return 1;
+        return Text.of(String.join("\n", lines));
     }
 
     // ==================== SOCIAL COMMANDS ====================
@@ -534,9 +663,11 @@ public class KingdomCommand {
         if (executor != null) {
             Kingdom kingdom = KingdomManager.getKingdomOfPlayer(executor.getUuid());
             if (kingdom != null) {
-                executor.getServer().getPlayerManager().getPlayerList().stream()
-                        .filter(player -> !kingdom.isMember(player) && !player.getUuid().equals(executor.getUuid()))
-                        .forEach(player -> builder.suggest(player.getName().getString()));
+                PlayerManager players = executor.getServer().getPlayerManager();
+                KingdomManager.getOnlinePlayerIndex().forEachMatch(builder.getRemaining(), MAX_SUGGESTIONS, name -> {
+                    ServerPlayerEntity player = players.getPlayer(name);
+                    return player != null && player != executor && !kingdom.isMember(player);
+                }, builder::suggest);
             }
         }
         return builder;
@@ -550,14 +681,37 @@ public class KingdomCommand {
         if (executor != null) {
             Kingdom kingdom = KingdomManager.getKingdomOfPlayer(executor.getUuid());
             if (kingdom != null) {
-                executor.getServer().getPlayerManager().getPlayerList().stream()
-                        .filter(kingdom::isMember)
-                        .forEach(player -> builder.suggest(player.getName().getString()));
+                // A kingdom's members are far fewer than the online players, so walk those instead
+                String prefix = builder.getRemaining().toLowerCase(Locale.ROOT);
+                PlayerManager players = executor.getServer().getPlayerManager();
+                int count = 0;
+                for (UUID memberId : kingdom.getMembers().keySet()) {
+                    if (count >= MAX_SUGGESTIONS) break;
+                    ServerPlayerEntity member = players.getPlayer(memberId);
+                    if (member == null) continue;
+                    String name = member.getName().getString();
+                    if (name.toLowerCase(Locale.ROOT).startsWith(prefix)) { builder.suggest(name); count++; }
+                }
             }
         }
         return builder;
     }
 
+    private static void suggestMatching(Set<String> names, com.mojang.brigadier.suggestion.SuggestionsBuilder builder) {
+        String prefix = builder.getRemaining().toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (String name : names) {
+            if (count >= MAX_SUGGESTIONS) break;
+            if (name.toLowerCase(Locale.ROOT).startsWith(prefix)) { builder.suggest(name); count++; }
+        }
+    }
+
+    private static com.mojang.brigadier.suggestion.SuggestionsBuilder suggestSorts(
+            com.mojang.brigadier.suggestion.SuggestionsBuilder builder) {
+        for (KingdomSummaryCache.Sort sort : KingdomSummaryCache.Sort.values()) builder.suggest(sort.name().toLowerCase());
+        return builder;
+    }
+
     private static com.mojang.brigadier.suggestion.SuggestionsBuilder suggestRanks(
             com.mojang.brigadier.suggestion.SuggestionsBuilder builder) {
 
@@ -565,11 +719,6 @@ public class KingdomCommand {
         return builder;
     }
 
-    private static String getPlayerName(UUID playerId, net.minecraft.server.MinecraftServer server) {
-        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
-        return player != null ? player.getName().getString() : "Unknown";
-    }
-
     private static String formatCurrency(long amount) {
         long gold = amount / 10000, silver = (amount % 10000) / 100, bronze = amount % 100;
         if (gold > 0) return String.format("%d gold, %d silver, %d bronze", gold, silver, bronze);
@@ -0,0 +1,119 @@
+/**
+ * TERRITORY MAP COMMAND HANDLER
+ *
+ * Draws the territory around the player as a coloured chat map and exports
+ * map tiles for external web maps.
+ *
+ * COMMANDS:
+ * - /kingdom map - Shows a WIDTH x HEIGHT chunk map centred on the player
+ * - /kingdom map export - (OP) Writes every claimed region as a JSON tile
+ *
+ * MAP KEY:
+ * - White: your position
+ * - Green: your kingdom, aqua: allies, red: enemies, gold: other kingdoms
+ * - Dark grey: wilderness
+ *
+ * PERFORMANCE:
+ * - Cells are read from cached TerritoryTiles; a map only rebuilds the regions
+ *   whose claims changed since they were last drawn
+ * - The whole map is sent as a single multi-line message
+ */
+
+package com.odaishi.asheskingdoms.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.TerritoryTiles;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static net.minecraft.server.command.CommandManager.literal;
+
+public class KingdomMapCommand {
+    private static final int WIDTH = 27;
+    private static final int HEIGHT = 13;
+    private static final String CELL = "█";
+
+    public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(
+                literal("kingdom")
+                        .then(literal("map")
+                                .executes(KingdomMapCommand::showMap)
+                                .then(literal("export")
+                                        .requires(source -> source.hasPermissionLevel(4))
+                                        .executes(KingdomMapCommand::exportTiles)))
+        );
+    }
+
+    private static int showMap(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null) return 0;
+
+        player.sendMessage(render(player.getChunkPos(), KingdomManager.getKingdomOfPlayer(player.getUuid())), false);
+        return 1;
+    }
+
+    /** The map centred on {@code centre}, coloured from the point of view of {@code viewer} (may be null). */
+    public static Text render(ChunkPos centre, Kingdom viewer) {
+        int minX = centre.x - WIDTH / 2, minZ = centre.z - HEIGHT / 2;
+        Kingdom here = KingdomManager.getKingdomAt(centre);
+
+        StringBuilder text = new StringBuilder(64 + HEIGHT * (WIDTH * 3 + 4));
+        text.append("§6=== Map (").append(centre.x).append(", ").append(centre.z).append(") - ")
+                .append(here != null ? "§e" + here.getName() : "§2Wilderness").append(" §6===");
+
+        Map<Kingdom, String> colours = new IdentityHashMap<>();
+        TerritoryTiles.Tile tile = null;
+        for (int z = minZ; z < minZ + HEIGHT; z++) {
+            text.append('\n');
+            String lastColour = null;
+            for (int x = minX; x < minX + WIDTH; x++) {
+                if (tile == null || tile.regionX != x >> TerritoryTiles.SHIFT || tile.regionZ != z >> TerritoryTiles.SHIFT) {
+                    tile = TerritoryTiles.forChunk(x, z);
+                }
+                String colour;
+                if (x == centre.x && z == centre.z) {
+                    colour = "§f";
+                } else {
+                    Kingdom owner = tile.ownerAt(x, z);
+                    colour = owner == null ? "§8" : colours.computeIfAbsent(owner, k -> colourFor(viewer, k));
+                }
+                // Only emit a colour code when it changes along the row
+                if (!colour.equals(lastColour)) { text.append(colour); lastColour = colour; }
+                text.append(CELL);
+            }
+        }
+        text.append("\n§f" + CELL + " §7You  §a" + CELL + " §7Yours  §b" + CELL + " §7Ally  §c" + CELL + " §7Enemy  §6"
+                + CELL + " §7Other  §8" + CELL + " §7Wild");
+        return Text.of(text.toString());
+    }
+
+    private static String colourFor(Kingdom viewer, Kingdom owner) {
+        if (viewer == null) return "§6";
+        if (owner == viewer) return "§a";
+        if (viewer.isAlly(owner.getName())) return "§b";
+        if (viewer.isEnemy(owner.getName())) return "§c";
+        return "§6";
+    }
+
+    private static int exportTiles(CommandContext<ServerCommandSource> context) {
+        File dir = new File(context.getSource().getServer().getRunDirectory().toFile(), "asheskingdoms/map/tiles");
+        try {
+            int written = TerritoryTiles.exportAll(dir);
+            context.getSource().sendFeedback(() -> Text.literal("§aExported " + written + " map tiles to " + dir.getPath()), false);
+            return 1;
+        } catch (IOException e) {
+            context.getSource().sendError(Text.literal("§cMap export failed: " + e.getMessage()));
+            return 0;
+        }
+    }
+}
@@ -148,10 +148,6 @@ public class KingdomMemberCommand {
     }
 
     private static Kingdom getPlayerKingdom(PlayerEntity player) {
-        // Use the kingdoms collection directly from KingdomManager
-        return KingdomManager.kingdoms.values().stream()
-                .filter(k -> k.isMember(player.getUuid()))
-                .findFirst()
-                .orElse(null);
+        return KingdomManager.getKingdomOfPlayer(player.getUuid());
     }
 }
@@ -6,12 +6,14 @@ import com.mojang.brigadier.context.CommandContext;
 import com.odaishi.asheskingdoms.kingdoms.Kingdom;
 import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
 import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import com.odaishi.asheskingdoms.kingdoms.TerritoryTransfer;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.ChunkPos;
 
+import java.io.IOException;
 import java.util.Optional;
 
 import static com.odaishi.asheskingdoms.commands.KingdomCommand.notifyKingdom;
@@ -70,11 +72,8 @@ public class KingdomWarCommand {
             return error("Kingdom is not available for claiming", context);
         }
 
-        // Claim all captured territories
-        for (ChunkPos claim : war.capturedClaims) {
-            defenderKingdom.getClaimedChunks().remove(claim);
-            attackingKingdom.addClaim(claim);
-        }
+        // Claim all captured territories in one transfer so the claim index stays consistent
+        TerritoryTransfer.Result transfer = TerritoryTransfer.transfer(defenderKingdom, attackingKingdom, war.capturedClaims);
 
         // Transfer treasury (optional - could be war spoils)
         long spoils = defenderKingdom.getTreasury() / 2; // 50% of defender's treasury
@@ -87,7 +86,13 @@ public class KingdomWarCommand {
         KingdomWarManager.removeWar(war.id);
         defenderKingdom.setFalling(false);
 
-        context.getSource().sendFeedback(() -> Text.literal("§aSuccessfully claimed " + war.defender + "!"), false);
+        try {
+            KingdomManager.saveToFile();
+        } catch (IOException e) {
+            return error("Claimed, but saving failed: " + e.getMessage(), context);
+        }
+
+        context.getSource().sendFeedback(() -> Text.literal("§aSuccessfully claimed " + war.defender + "! §7(" + transfer.moved() + " chunks)"), false);
         notifyKingdom(defenderKingdom, "§cYour kingdom has been claimed by " + attackingKingdom.getName());
 
         return 1;
@@ -0,0 +1,100 @@
+/**
+ * BORDER CROSSING NOTIFICATIONS
+ *
+ * Shows an action-bar message when a player walks into another kingdom's
+ * territory, back into the wilderness, or onto a different personal plot.
+ *
+ * PER-TICK COST:
+ * - Each online player has a remembered chunk key (ChunkPos.toLong)
+ * - Every tick the player's current chunk key is compared with it; that long
+ *   comparison is all that happens while the player stays inside one chunk
+ * - Ownership is resolved through the claim index only when the key changes
+ * - A message is sent only if the owning kingdom or personal-claim holder differs
+ *   from the last one shown, so walking between chunks of one kingdom is silent
+ * - Kingdoms are remembered by name, so a reload that replaces the Kingdom
+ *   objects does not announce the kingdom a player is already standing in
+ *
+ * LIFECYCLE:
+ * - Players are tracked from their first tick online and forgotten on disconnect
+ * - Disabled with borderNotificationsEnabled in the config
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+public final class BorderCrossingTracker {
+    private static final class Position {
+        long chunkKey;
+        String owner; // by name: Kingdom objects are replaced when the data is reloaded
+        UUID plotHolder;
+
+        Position(long chunkKey) { this.chunkKey = chunkKey; }
+    }
+
+    private static final Map<UUID, Position> positions = new HashMap<>();
+
+    private BorderCrossingTracker() {}
+
+    public static void onServerTick(MinecraftServer server) {
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            ChunkPos chunk = player.getChunkPos();
+            long key = chunk.toLong();
+
+            Position position = positions.get(player.getUuid());
+            if (position == null) {
+                // First sighting: remember where they are without announcing it
+                position = new Position(key);
+                Kingdom owner = KingdomManager.getKingdomAt(chunk);
+                position.owner = owner != null ? owner.getName() : null;
+                position.plotHolder = owner != null ? owner.getPersonalClaimOwner(chunk) : null;
+                positions.put(player.getUuid(), position);
+                continue;
+            }
+            if (position.chunkKey == key) continue;
+
+            position.chunkKey = key;
+            Kingdom owner = KingdomManager.getKingdomAt(chunk);
+            String ownerName = owner != null ? owner.getName() : null;
+            UUID plotHolder = owner != null ? owner.getPersonalClaimOwner(chunk) : null;
+            boolean kingdomChanged = !Objects.equals(ownerName, position.owner);
+            if (!kingdomChanged && Objects.equals(plotHolder, position.plotHolder)) continue;
+
+            position.owner = ownerName;
+            position.plotHolder = plotHolder;
+            player.sendMessage(describe(server, owner, plotHolder, kingdomChanged), true);
+        }
+    }
+
+    public static void forget(ServerPlayerEntity player) {
+        positions.remove(player.getUuid());
+    }
+
+    public static void clear() {
+        positions.clear();
+    }
+
+    private static Text describe(MinecraftServer server, Kingdom owner, UUID plotHolder, boolean kingdomChanged) {
+        if (owner == null) return Text.of("§2Entering the Wilderness");
+        String kingdom = "§6" + owner.getName() + (owner.isFalling() ? " §c(falling)" : "");
+        if (plotHolder != null) {
+            return Text.of((kingdomChanged ? "§eEntering " + kingdom + " §7- " : "§7") + "§bplot of " + playerName(server, plotHolder));
+        }
+        return Text.of("§eEntering " + kingdom);
+    }
+
+    private static String playerName(MinecraftServer server, UUID playerId) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
+        if (player != null) return player.getName().getString();
+        return server.getUserCache() == null ? "unknown"
+                : server.getUserCache().getByUuid(playerId).map(GameProfile::getName).orElse("unknown");
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * BORDER PARTICLE VISUALIZER
+ *
+ * Draws kingdom borders around players who turned them on with
+ * /kingdom border show, as lines of coloured dust at eye level.
+ *
+ * COLOURS:
+ * - Green: your kingdom, aqua: allies, red: enemies, orange: other kingdoms
+ * - Each kingdom's line sits half a block inside its own chunk, so a border
+ *   shared by two kingdoms shows both colours side by side
+ *
+ * CULLING:
+ * - Only chunks within borderParticleRange blocks (capped by the server view
+ *   distance) are looked at; nearby kingdoms are found through the claim index
+ * - Border edges come from TerritoryGeometry's cached edge map, looked up per
+ *   grid vertex around the viewer, so cost depends on the range and never on
+ *   the size of the kingdoms
+ * - Points outside the range circle are dropped and each refresh is capped at
+ *   borderParticleMaxPerViewer particles, keeping the ones nearest the viewer
+ *
+ * RATE LIMITING AND BATCHING:
+ * - Each viewer is refreshed every borderParticleIntervalTicks, with viewers
+ *   spread across ticks by a per-player phase
+ * - A refresh is one bundle packet wrapping all of that viewer's particles
+ * - The bundle is reused while the viewer stays in the same chunk and block
+ *   height and no claims changed; it is rebuilt at least every REBUILD_TICKS
+ *   so alliance changes show up
+ *
+ * LIFECYCLE:
+ * - Viewers are dropped on disconnect and when the server stops
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.odaishi.asheskingdoms.utils.ModConfig;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
+import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
+import net.minecraft.particle.DustParticleEffect;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public final class BorderParticleVisualizer {
+    private static final DustParticleEffect OWN = new DustParticleEffect(new Vector3f(0.2f, 1.0f, 0.2f), 1.0f);
+    private static final DustParticleEffect ALLY = new DustParticleEffect(new Vector3f(0.3f, 0.9f, 1.0f), 1.0f);
+    private static final DustParticleEffect ENEMY = new DustParticleEffect(new Vector3f(1.0f, 0.2f, 0.2f), 1.0f);
+    private static final DustParticleEffect OTHER = new DustParticleEffect(new Vector3f(1.0f, 0.65f, 0.1f), 1.0f);
+
+    private static final double SPACING = 2.0; // blocks between particles along an edge
+    private static final double INSET = 0.5;   // blocks from the border into the owning chunk
+    private static final int REBUILD_TICKS = 200;
+
+    // Edge directions in OutlineTracer's order: +x, +z, -x, -z
+    private static final int[] DX = { 1, 0, -1, 0 };
+    private static final int[] DZ = { 0, 1, 0, -1 };
+
+    private record Point(double x, double z, double distanceSq, DustParticleEffect effect) {}
+
+    private static final class Viewer {
+        final int phase;
+        long chunkKey = Long.MIN_VALUE;
+        int blockY;
+        long stamp = -1;
+        long builtAt;
+        Kingdom kingdom;
+        BundleS2CPacket bundle; // null when there is nothing to draw
+
+        Viewer(UUID playerId) { this.phase = playerId.hashCode() & 0xFFFF; }
+    }
+
+    private static final Map<UUID, Viewer> viewers = new HashMap<>();
+    private static long tick;
+
+    private BorderParticleVisualizer() {}
+
+    /** Starts drawing borders for the player; false if they were already shown. */
+    public static boolean show(ServerPlayerEntity player) {
+        return viewers.putIfAbsent(player.getUuid(), new Viewer(player.getUuid())) == null;
+    }
+
+    /** Stops drawing borders for the player; false if they were not shown. */
+    public static boolean hide(ServerPlayerEntity player) {
+        return viewers.remove(player.getUuid()) != null;
+    }
+
+    public static boolean isShowing(ServerPlayerEntity player) {
+        return viewers.containsKey(player.getUuid());
+    }
+
+    public static int getViewerCount() { return viewers.size(); }
+
+    public static void onServerTick(MinecraftServer server, ModConfig config) {
+        if (viewers.isEmpty()) return;
+        tick++;
+
+        int interval = Math.max(1, config.borderParticleIntervalTicks);
+        int range = Math.max(1, Math.min(config.borderParticleRange, server.getPlayerManager().getViewDistance() * 16));
+        for (Map.Entry<UUID, Viewer> entry : viewers.entrySet()) {
+            Viewer viewer = entry.getValue();
+            if ((tick + viewer.phase) % interval != 0) continue;
+
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(entry.getKey());
+            if (player == null) continue;
+            refresh(player, viewer, range, config.borderParticleMaxPerViewer);
+            if (viewer.bundle != null) player.networkHandler.sendPacket(viewer.bundle);
+        }
+    }
+
+    public static void forget(ServerPlayerEntity player) {
+        viewers.remove(player.getUuid());
+    }
+
+    public static void clear() {
+        viewers.clear();
+    }
+
+    // Rebuilds the viewer's bundle unless the cached one still matches
+    private static void refresh(ServerPlayerEntity player, Viewer viewer, int range, int maxParticles) {
+        ChunkPos chunk = player.getChunkPos();
+        long chunkKey = chunk.toLong();
+        int blockY = player.getBlockY();
+        long stamp = TerritoryGeometry.getChangeStamp();
+        Kingdom kingdom = KingdomManager.getKingdomOfPlayer(player.getUuid());
+        if (viewer.chunkKey == chunkKey && viewer.blockY == blockY && viewer.stamp == stamp
+                && viewer.kingdom == kingdom && tick - viewer.builtAt < REBUILD_TICKS) return;
+
+        viewer.chunkKey = chunkKey;
+        viewer.blockY = blockY;
+        viewer.stamp = stamp;
+        viewer.kingdom = kingdom;
+        viewer.builtAt = tick;
+        viewer.bundle = build(chunk, player.getX(), blockY + 1.5, player.getZ(), kingdom, range, maxParticles);
+    }
+
+    private static BundleS2CPacket build(ChunkPos centre, double px, double y, double pz, Kingdom viewerKingdom,
+                                         int range, int maxParticles) {
+        int r = (range + 15) >> 4;
+
+        // An edge starting at a vertex in [centre - r, centre + r + 1] belongs to a chunk at most one further out
+        List<Kingdom> nearby = new ArrayList<>(4);
+        for (int x = centre.x - r - 1; x <= centre.x + r + 1; x++) {
+            for (int z = centre.z - r - 1; z <= centre.z + r + 1; z++) {
+                Kingdom owner = KingdomManager.getKingdomAt(x, z);
+                if (owner != null && !containsIdentity(nearby, owner)) nearby.add(owner);
+            }
+        }
+        if (nearby.isEmpty()) return null;
+
+        double rangeSq = (double) range * range;
+        List<Point> points = new ArrayList<>();
+        for (Kingdom kingdom : nearby) {
+            DustParticleEffect effect = colourFor(viewerKingdom, kingdom);
+            Long2IntMap edges = TerritoryGeometry.getBoundaryEdges(kingdom);
+            for (int vx = centre.x - r; vx <= centre.x + r + 1; vx++) {
+                for (int vz = centre.z - r; vz <= centre.z + r + 1; vz++) {
+                    int mask = edges.get(ChunkPos.toLong(vx, vz));
+                    while (mask != 0) {
+                        int dir = Integer.numberOfTrailingZeros(mask);
+                        mask &= mask - 1;
+                        // The owning chunk is on the left of the edge's direction
+                        double startX = vx * 16 - DZ[dir] * INSET, startZ = vz * 16 + DX[dir] * INSET;
+                        for (double t = 0; t < 16; t += SPACING) {
+                            double x = startX + DX[dir] * t, z = startZ + DZ[dir] * t;
+                            double dx = x - px, dz = z - pz;
+                            double distanceSq = dx * dx + dz * dz;
+                            if (distanceSq <= rangeSq) points.add(new Point(x, z, distanceSq, effect));
+                        }
+                    }
+                }
+            }
+        }
+        if (points.isEmpty()) return null;
+
+        // Over the cap, keep the points nearest the viewer so the cut is a smaller circle, not one side of the range
+        if (points.size() > maxParticles) {
+            points.sort(Comparator.comparingDouble(Point::distanceSq));
+            points = points.subList(0, Math.max(1, maxParticles));
+        }
+        List<Packet<? super ClientPlayPacketListener>> packets = new ArrayList<>(points.size());
+        for (Point point : points) {
+            packets.add(new ParticleS2CPacket(point.effect(), false, point.x(), y, point.z(), 0f, 0f, 0f, 0f, 1));
+        }
+        return new BundleS2CPacket(packets);
+    }
+
+    private static boolean containsIdentity(List<Kingdom> kingdoms, Kingdom kingdom) {
+        for (Kingdom k : kingdoms) if (k == kingdom) return true;
+        return false;
+    }
+
+    private static DustParticleEffect colourFor(Kingdom viewer, Kingdom owner) {
+        if (viewer == null) return OTHER;
+        if (owner == viewer) return OWN;
+        if (viewer.isAlly(owner.getName())) return ALLY;
+        if (viewer.isEnemy(owner.getName())) return ENEMY;
+        return OTHER;
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * CLAIM CONNECTIVITY CHECKS
+ *
+ * Decides whether claims can be released without splitting a kingdom's
+ * territory into pieces cut off from its home chunk.
+ *
+ * SINGLE CHUNK:
+ * - Local ring test first: if the chunk's claimed edge neighbours are joined
+ *   through the eight surrounding chunks, removing it cannot disconnect anything
+ * - Otherwise a breadth-first search is started from each claimed edge neighbour
+ *   with the chunk taken out, advanced in turns; searches that meet are merged
+ * - It stops as soon as every neighbour is joined (safe) or one merged search runs
+ *   out of chunks before meeting the rest (that piece would be cut off)
+ * - Cost: a cut point costs about the size of the smallest piece it cuts off; a
+ *   safe chunk costs the claims within half its shortest detour. A detour that
+ *   spans the whole kingdom, e.g. a one-chunk-wide ring, still walks most of it
+ * - Nothing is cached, so claiming and unclaiming never trigger a rebuild
+ *
+ * BULK:
+ * - Chunks are removed one at a time against a scratch copy using the ring test
+ * - Only if some chunk fails the ring test is the remaining territory walked from
+ *   home; if that misses anything, a second walk over the current territory tells
+ *   which chunks the batch actually cuts off
+ * - Chunks that were already separated from home before the batch are not
+ *   blamed on it, so the fallback costs at most two walks of the territory
+ *
+ * The claim graph uses edge (4-way) adjacency, matching the claim rules.
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.*;
+
+public class ClaimConnectivity {
+    // Ring around a chunk in cyclic order; consecutive entries share an edge
+    private static final int[][] RING = { {0, -1}, {1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1} };
+
+    /** Whether the kingdom can release this claim without splitting the territory around it. */
+    public boolean canRelease(Kingdom kingdom, ChunkPos chunk) {
+        Set<ChunkPos> claims = kingdom.getClaimedChunks();
+        if (!claims.contains(chunk) || chunk.equals(kingdom.getHomeChunk())) return false;
+        return ringConnected(claims, chunk) || neighboursStayJoined(claims, chunk);
+    }
+
+    /**
+     * Chunks from the batch that cannot be released together, or an empty list if the
+     * whole batch can go. Returns the home chunk or unowned chunks if they were requested;
+     * otherwise the chunks the batch would newly cut off from home.
+     */
+    public List<ChunkPos> findBlocking(Kingdom kingdom, Collection<ChunkPos> batch) {
+        Set<ChunkPos> claims = kingdom.getClaimedChunks();
+        List<ChunkPos> blocking = new ArrayList<>();
+        for (ChunkPos chunk : batch) {
+            if (!claims.contains(chunk) || chunk.equals(kingdom.getHomeChunk())) blocking.add(chunk);
+        }
+        if (!blocking.isEmpty()) return blocking;
+
+        Set<ChunkPos> remaining = new HashSet<>(claims);
+        boolean locallySafe = true;
+        for (ChunkPos chunk : batch) {
+            if (locallySafe && !ringConnected(remaining, chunk)) locallySafe = false;
+            remaining.remove(chunk);
+        }
+        if (locallySafe) return List.of();
+
+        // Walk from home over what would be left; anything it misses might be cut off
+        Set<ChunkPos> reachedAfter = reachableFromHome(kingdom.getHomeChunk(), remaining);
+        if (reachedAfter.size() == remaining.size()) return List.of();
+
+        // Only blame the batch for chunks that were still joined to home before it
+        Set<ChunkPos> reachedBefore = reachableFromHome(kingdom.getHomeChunk(), claims);
+        for (ChunkPos chunk : remaining) {
+            if (reachedBefore.contains(chunk) && !reachedAfter.contains(chunk)) blocking.add(chunk);
+        }
+        return blocking;
+    }
+
+    private static Set<ChunkPos> reachableFromHome(ChunkPos home, Set<ChunkPos> claims) {
+        Set<ChunkPos> reached = new HashSet<>();
+        if (!claims.contains(home)) return reached;
+        ArrayDeque<ChunkPos> queue = new ArrayDeque<>();
+        reached.add(home);
+        queue.add(home);
+        while (!queue.isEmpty()) {
+            ChunkPos c = queue.poll();
+            for (int[] d : RING) {
+                if (d[0] != 0 && d[1] != 0) continue;
+                ChunkPos n = new ChunkPos(c.x + d[0], c.z + d[1]);
+                if (claims.contains(n) && reached.add(n)) queue.add(n);
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * With the chunk taken out, whether its claimed edge neighbours are still joined.
+     * One search per neighbour, one chunk each per turn; searches that meet share a group,
+     * and the first group to run dry before the rest have joined it is a cut-off piece.
+     */
+    static boolean neighboursStayJoined(Set<ChunkPos> claims, ChunkPos chunk) {
+        List<ArrayDeque<ChunkPos>> queues = new ArrayList<>(4);
+        Map<ChunkPos, Integer> owner = new HashMap<>();
+        owner.put(chunk, -1); // never entered
+        for (int i = 0; i < RING.length; i += 2) {
+            ChunkPos n = new ChunkPos(chunk.x + RING[i][0], chunk.z + RING[i][1]);
+            if (!claims.contains(n)) continue;
+            owner.put(n, queues.size());
+            queues.add(new ArrayDeque<>(List.of(n)));
+        }
+        int searches = queues.size();
+        if (searches <= 1) return true;
+
+        int[] group = new int[searches];
+        for (int i = 0; i < searches; i++) group[i] = i;
+        int groups = searches;
+
+        while (true) {
+            for (int i = 0; i < searches; i++) {
+                ChunkPos c = queues.get(i).poll();
+                if (c == null) continue;
+                for (int j = 0; j < RING.length; j += 2) {
+                    ChunkPos n = new ChunkPos(c.x + RING[j][0], c.z + RING[j][1]);
+                    if (!claims.contains(n)) continue;
+                    Integer seen = owner.putIfAbsent(n, i);
+                    if (seen == null) {
+                        queues.get(i).add(n);
+                    } else if (seen >= 0 && find(group, seen) != find(group, i)) {
+                        group[find(group, seen)] = find(group, i);
+                        if (--groups == 1) return true;
+                    }
+                }
+            }
+            // A group whose searches have all run dry is a piece the others never reached
+            for (int i = 0; i < searches; i++) {
+                int root = find(group, i);
+                boolean dry = true;
+                for (int j = 0; j < searches && dry; j++) {
+                    if (find(group, j) == root && !queues.get(j).isEmpty()) dry = false;
+                }
+                if (dry) return false;
+            }
+        }
+    }
+
+    private static int find(int[] group, int i) {
+        while (group[i] != i) i = group[i] = group[group[i]];
+        return i;
+    }
+
+    /**
+     * True if every claimed edge neighbour of the chunk lies in the same run of claimed
+     * chunks around its 8-neighbourhood, i.e. they stay joined without the chunk itself.
+     */
+    static boolean ringConnected(Set<ChunkPos> claims, ChunkPos chunk) {
+        boolean[] claimed = new boolean[RING.length];
+        int edgeNeighbours = 0;
+        for (int i = 0; i < RING.length; i++) {
+            claimed[i] = claims.contains(new ChunkPos(chunk.x + RING[i][0], chunk.z + RING[i][1]));
+            if (claimed[i] && i % 2 == 0) edgeNeighbours++;
+        }
+        if (edgeNeighbours <= 1) return true;
+
+        // Start just after an unclaimed slot so runs do not wrap; a full ring is one run
+        int start = -1;
+        for (int i = 0; i < RING.length; i++) if (!claimed[i]) { start = i; break; }
+        if (start < 0) return true;
+
+        int runsWithEdgeNeighbour = 0;
+        boolean inRun = false, runHasEdge = false;
+        for (int k = 1; k <= RING.length; k++) {
+            int i = (start + k) % RING.length;
+            if (claimed[i]) {
+                inRun = true;
+                if (i % 2 == 0) runHasEdge = true;
+            } else if (inRun) {
+                if (runHasEdge) runsWithEdgeNeighbour++;
+                inRun = false;
+                runHasEdge = false;
+            }
+        }
+        return runsWithEdgeNeighbour <= 1;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * CLAIM DISTANCE INDEX
+ *
+ * Keeps a kingdom's claims bucketed by Manhattan distance from its home chunk,
+ * maintained incrementally as claims are added and removed.
+ *
+ * QUERIES:
+ * - outermost(k): the k claims farthest from home, in O(k) plus the buckets visited
+ * - outerRing(): every claim at the current maximum distance
+ * - innerRing(): every claim at the current minimum distance
+ * - ringAt(d): every claim at exactly distance d
+ * - maxDistance(): the territory's reach from home
+ *
+ * USAGE:
+ * Used when trimming territory for unpaid upkeep, and available for frontline
+ * and "outer ring" style queries without sorting the whole claim set.
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.*;
+
+public class ClaimDistanceIndex {
+    private ChunkPos home;
+    private final TreeMap<Integer, Set<ChunkPos>> buckets = new TreeMap<>();
+
+    public ClaimDistanceIndex(ChunkPos home, Collection<ChunkPos> claims) {
+        this.home = home;
+        claims.forEach(this::add);
+    }
+
+    public void add(ChunkPos chunk) {
+        buckets.computeIfAbsent(distanceOf(chunk), d -> new HashSet<>()).add(chunk);
+    }
+
+    public void remove(ChunkPos chunk) {
+        int distance = distanceOf(chunk);
+        Set<ChunkPos> bucket = buckets.get(distance);
+        if (bucket != null && bucket.remove(chunk) && bucket.isEmpty()) buckets.remove(distance);
+    }
+
+    /** Re-buckets all claims around a new home chunk. */
+    public void rehome(ChunkPos newHome, Collection<ChunkPos> claims) {
+        this.home = newHome;
+        buckets.clear();
+        claims.forEach(this::add);
+    }
+
+    public int distanceOf(ChunkPos chunk) {
+        return Math.abs(chunk.x - home.x) + Math.abs(chunk.z - home.z);
+    }
+
+    /** Largest distance of any claim from home, or -1 if there are no claims. */
+    public int maxDistance() {
+        return buckets.isEmpty() ? -1 : buckets.lastKey();
+    }
+
+    public Set<ChunkPos> outerRing() {
+        return buckets.isEmpty() ? Set.of() : Collections.unmodifiableSet(buckets.lastEntry().getValue());
+    }
+
+    public Set<ChunkPos> innerRing() {
+        return buckets.isEmpty() ? Set.of() : Collections.unmodifiableSet(buckets.firstEntry().getValue());
+    }
+
+    public Set<ChunkPos> ringAt(int distance) {
+        Set<ChunkPos> bucket = buckets.get(distance);
+        return bucket == null ? Set.of() : Collections.unmodifiableSet(bucket);
+    }
+
+    /** Up to {@code count} claims, farthest from home first. */
+    public List<ChunkPos> outermost(int count) {
+        List<ChunkPos> result = new ArrayList<>(Math.max(0, count));
+        for (Set<ChunkPos> bucket : buckets.descendingMap().values()) {
+            for (ChunkPos chunk : bucket) {
+                if (result.size() >= count) return result;
+                result.add(chunk);
+            }
+        }
+        return result;
+    }
+}
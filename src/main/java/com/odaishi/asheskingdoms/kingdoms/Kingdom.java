@@ -1,6 +1,7 @@
 package com.odaishi.asheskingdoms.kingdoms;
 
 import com.google.gson.*;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.math.ChunkPos;
@@ -11,6 +12,11 @@ public class Kingdom {
     private final UUID owner;
     private final Map<UUID, String> members;
     private final Set<ChunkPos> claimedChunks;
+    private final Set<ChunkPos> claimedChunksView;
+    private final ClaimDistanceIndex claimsByDistance;
+    private final ClaimConnectivity connectivity = new ClaimConnectivity();
+    private long claimVersion;
+    private long revision; // bumped on changes shown in summaries (members, claims, treasury, falling)
     private ChunkPos homeChunk;
     private final KingdomSettings settings;
     private final Map<ChunkPos, PersonalClaim> personalClaims;
@@ -36,6 +42,8 @@ public class Kingdom {
                    ChunkPos homeChunk, KingdomSettings settings, Map<ChunkPos, PersonalClaim> personalClaims) {
         this.name = name; this.owner = owner; this.members = new HashMap<>(members);
         this.claimedChunks = new HashSet<>(claims); this.homeChunk = homeChunk;
+        this.claimedChunksView = Collections.unmodifiableSet(claimedChunks);
+        this.claimsByDistance = new ClaimDistanceIndex(homeChunk, claimedChunks);
         this.settings = settings != null ? settings : new KingdomSettings();
         this.personalClaims = personalClaims != null ? new HashMap<>(personalClaims) : new HashMap<>();
         this.treasury = 0; this.lastUpkeepCollection = System.currentTimeMillis(); this.taxContributions = new HashMap<>();
@@ -96,11 +104,25 @@ public class Kingdom {
 
     // ==================== TREASURY SYSTEM ====================
     public long getTreasury() { return treasury; }
-    public boolean deposit(long amount) { if (amount <= 0) return false; treasury += amount; return true; }
-    public boolean withdraw(long amount) { if (amount <= 0 || treasury < amount) return false; treasury -= amount; return true; }
+    public boolean deposit(long amount) { if (amount <= 0) return false; treasury += amount; changed(); return true; }
+    public boolean withdraw(long amount) { if (amount <= 0 || treasury < amount) return false; treasury -= amount; changed(); return true; }
+
+    // Cached daily upkeep, adjusted per claim added/removed and rebuilt when the treasury settings change
+    private long upkeepCost;
+    private int upkeepCostVersion = -1;
 
     public long calculateDailyUpkeep() {
-        return !settings.isUpkeepEnabled() ? 0 : settings.getBaseUpkeep() + (claimedChunks.size() * settings.getClaimUpkeep());
+        if (upkeepCostVersion != settings.getUpkeepVersion()) {
+            upkeepCost = !settings.isUpkeepEnabled() ? 0 : settings.getBaseUpkeep() + (claimedChunks.size() * settings.getClaimUpkeep());
+            upkeepCostVersion = settings.getUpkeepVersion();
+        }
+        return upkeepCost;
+    }
+
+    private void adjustUpkeepCost(int claimDelta) {
+        if (upkeepCostVersion == settings.getUpkeepVersion() && settings.isUpkeepEnabled()) {
+            upkeepCost += claimDelta * settings.getClaimUpkeep();
+        }
     }
 
     private boolean isFalling = false;
@@ -116,6 +138,7 @@ public class Kingdom {
         this.isFalling = falling;
         this.fallingStartTime = falling ? System.currentTimeMillis() : 0;
         this.fallenReclaimedBy = null;
+        changed();
     }
 
     public boolean canReclaim(UUID playerId) {
@@ -140,6 +163,7 @@ public class Kingdom {
         isFalling = false;
         fallingStartTime = 0;
         fallenReclaimedBy = playerId;
+        changed();
         return true;
     }
 
@@ -152,18 +176,26 @@ public class Kingdom {
         return false;
     }
 
-    public void handleInsufficientFunds() {
-        List<ChunkPos> claims = new ArrayList<>(claimedChunks);
-        claims.sort((a, b) -> Integer.compare(
-                Math.abs(b.x - homeChunk.x) + Math.abs(b.z - homeChunk.z),
-                Math.abs(a.x - homeChunk.x) + Math.abs(a.z - homeChunk.z)
-        ));
+    /** Number of claims that must be released before the treasury covers the daily upkeep. */
+    public int getClaimsOverBudget() {
+        if (canAffordUpkeep()) return 0;
+        long perClaim = settings.getClaimUpkeep();
+        long affordable = treasury - settings.getBaseUpkeep();
+        if (affordable < 0 || perClaim <= 0) return claimedChunks.size();
+        return (int) Math.max(0, claimedChunks.size() - affordable / perClaim);
+    }
 
-        while (!canAffordUpkeep() && !claimedChunks.isEmpty()) {
-            ChunkPos claim = claims.remove(0);
-            claimedChunks.remove(claim);
-            personalClaims.remove(claim);
-        }
+    /**
+     * Releases the claims farthest from the home chunk until the upkeep is affordable.
+     * Returns the released chunks so callers can update the global claim index.
+     */
+    public List<ChunkPos> handleInsufficientFunds() {
+        int excess = getClaimsOverBudget();
+        if (excess <= 0) return List.of();
+
+        List<ChunkPos> released = claimsByDistance.outermost(excess);
+        released.forEach(this::removeClaim);
+        return released;
     }
 
     public void addTaxContribution(UUID playerId, long amount) {
@@ -233,7 +265,7 @@ public class Kingdom {
 
     public boolean hasPersonalClaimAccess(UUID playerId, ChunkPos chunk) {
         PersonalClaim claim = personalClaims.get(chunk);
-        return claim != null && (claim.getPlayerId().equals(playerId) || isOwner(playerId) || getRank(playerId).equals(RANK_ASSISTANT));
+        return claim != null && (claim.getPlayerId().equals(playerId) || isOwner(playerId) || RANK_ASSISTANT.equals(getRank(playerId)));
     }
 
     public Map<ChunkPos, PersonalClaim> getPersonalClaims(UUID playerId) {
@@ -244,21 +276,68 @@ public class Kingdom {
         return result;
     }
 
+    public int getPersonalClaimCount() { return personalClaims.size(); }
     public int getPersonalClaimCount(UUID playerId) {
         return (int) personalClaims.values().stream().filter(claim -> claim.getPlayerId().equals(playerId)).count();
     }
 
     // ==================== CLAIMS & TERRITORY ====================
+    /** Whether the chunk shares an edge with this kingdom's territory; four set lookups. */
     public boolean isAdjacent(ChunkPos newChunk) {
-        return claimedChunks.stream().anyMatch(claimed ->
-                Math.abs(claimed.x - newChunk.x) + Math.abs(claimed.z - newChunk.z) == 1);
+        return claimedChunks.contains(new ChunkPos(newChunk.x + 1, newChunk.z))
+                || claimedChunks.contains(new ChunkPos(newChunk.x - 1, newChunk.z))
+                || claimedChunks.contains(new ChunkPos(newChunk.x, newChunk.z + 1))
+                || claimedChunks.contains(new ChunkPos(newChunk.x, newChunk.z - 1));
     }
 
     public int getClaimCount() { return claimedChunks.size(); }
-    public boolean claimChunk(ChunkPos chunk) { return claimedChunks.add(chunk); }
-    public void addClaim(ChunkPos chunk) { claimedChunks.add(chunk); }
-    public Set<ChunkPos> getClaims() { return claimedChunks; }
-    public Set<ChunkPos> getClaimedChunks() { return claimedChunks; }
+    public boolean claimChunk(ChunkPos chunk) {
+        if (!claimedChunks.add(chunk)) return false;
+        claimsByDistance.add(chunk);
+        claimVersion++;
+        changed();
+        adjustUpkeepCost(1);
+        return true;
+    }
+    public void addClaim(ChunkPos chunk) { claimChunk(chunk); }
+
+    /** Releases a claim along with any personal claim on it. */
+    public boolean removeClaim(ChunkPos chunk) {
+        if (!claimedChunks.remove(chunk)) return false;
+        claimsByDistance.remove(chunk);
+        claimVersion++;
+        changed();
+        personalClaims.remove(chunk);
+        adjustUpkeepCost(-1);
+        return true;
+    }
+
+    public Set<ChunkPos> getClaims() { return claimedChunksView; }
+    public Set<ChunkPos> getClaimedChunks() { return claimedChunksView; }
+
+    /** Claims at the greatest Manhattan distance from the home chunk. */
+    public Set<ChunkPos> getOuterRing() { return claimsByDistance.outerRing(); }
+    public Set<ChunkPos> getInnerRing() { return claimsByDistance.innerRing(); }
+    public Set<ChunkPos> getClaimsAtDistance(int distance) { return claimsByDistance.ringAt(distance); }
+    public int getTerritoryRadius() { return claimsByDistance.maxDistance(); }
+
+    /** Bumped on every claim change; lets derived territory caches tell when they are stale. */
+    public long getClaimVersion() { return claimVersion; }
+
+    /** Bumped whenever members, claims, treasury or falling state change. */
+    public long getRevision() { return revision; }
+
+    // Every revision bump goes through here so the /kingdom list row is rebuilt
+    private void changed() {
+        revision++;
+        KingdomSummaryCache.invalidate(this);
+    }
+
+    /** Whether the claim can be released without cutting territory off from the home chunk. */
+    public boolean canReleaseClaim(ChunkPos chunk) { return connectivity.canRelease(this, chunk); }
+
+    /** Claims from the batch that block releasing it as a whole; empty if the batch can go. */
+    public List<ChunkPos> findClaimsBlockingRelease(Collection<ChunkPos> chunks) { return connectivity.findBlocking(this, chunks); }
 
     public boolean canClaimPersonally(UUID playerId, ChunkPos chunk) {
         return claimedChunks.contains(chunk) && !personalClaims.containsKey(chunk) && isMember(playerId);
@@ -308,11 +387,18 @@ public class Kingdom {
     public boolean addMember(UUID playerId, String rank) {
         if (members.containsKey(playerId) || !isValidRank(rank)) return false;
         members.put(playerId, rank);
+        changed();
+        KingdomManager.memberAdded(this, playerId);
         return true;
     }
 
-    public boolean removeMember(UUID player) { return members.remove(player) != null; }
-    public boolean removeMember(PlayerEntity player) { return members.remove(player.getUuid()) != null; }
+    public boolean removeMember(UUID player) {
+        if (members.remove(player) == null) return false;
+        changed();
+        KingdomManager.memberRemoved(this, player);
+        return true;
+    }
+    public boolean removeMember(PlayerEntity player) { return removeMember(player.getUuid()); }
 
     public boolean setRank(PlayerEntity player, String rank) {
         return setRank(player.getUuid(), rank);
@@ -333,11 +419,13 @@ public class Kingdom {
     public String getName() { return name; }
     public UUID getOwner() { return owner; }
     public ChunkPos getHomeChunk() { return homeChunk; }
-    public void setHomeChunk(ChunkPos homeChunk) { this.homeChunk = homeChunk; }
+    public void setHomeChunk(ChunkPos homeChunk) {
+        this.homeChunk = homeChunk;
+        claimsByDistance.rehome(homeChunk, claimedChunks);
+    }
 
     public static Kingdom getPlayerKingdom(PlayerEntity player) {
-        UUID uuid = player.getUuid();
-        return KingdomManager.getAllKingdoms().stream().filter(k -> k.isMember(uuid)).findFirst().orElse(null);
+        return KingdomManager.getKingdomOfPlayer(player.getUuid());
     }
 
     // ==================== PERSISTENCE ====================
@@ -395,7 +483,7 @@ public class Kingdom {
         try {
             KingdomManager.saveToFile();
         } catch (Exception e) {
-            // Handle error
+            KingdomLog.errorLimited("kingdom-save", "Failed to save after changing {}: {}", name, e.getMessage());
         }
     }
 
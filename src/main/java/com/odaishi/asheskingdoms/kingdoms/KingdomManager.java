@@ -1,7 +1,15 @@
 package com.odaishi.asheskingdoms.kingdoms;
 
+import com.odaishi.asheskingdoms.AshesKingdoms;
+import com.odaishi.asheskingdoms.metrics.ModMetrics;
+import com.odaishi.asheskingdoms.metrics.PerfStats;
+import com.odaishi.asheskingdoms.metrics.jfr.KingdomSaveEvent;
+import com.odaishi.asheskingdoms.metrics.jfr.UpkeepRunEvent;
 import com.odaishi.asheskingdoms.utils.InventoryCoins;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
+import com.odaishi.asheskingdoms.utils.PrefixIndex;
 import com.google.gson.*;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
@@ -10,15 +18,25 @@ import java.io.*;
 import java.util.*;
 
 public class KingdomManager {
+    // Member index: player -> kingdom, kept in step by Kingdom.addMember/removeMember, create, delete and reindex()
     private static final Map<UUID, Kingdom> playerKingdoms = new HashMap<>();
-    private static final Set<ChunkPos> claimedChunks = new HashSet<>();
+    // Claim index: chunk (ChunkPos.toLong) -> owning kingdom, so ownership lookups are O(1)
+    private static final Long2ObjectOpenHashMap<Kingdom> claimOwners = new Long2ObjectOpenHashMap<>();
     public static final Map<String, Kingdom> kingdoms = new HashMap<>();
+    // Tab-completion indexes, maintained as kingdoms come and go and players join and leave
+    private static final PrefixIndex kingdomNames = new PrefixIndex();
+    private static final PrefixIndex onlinePlayerNames = new PrefixIndex();
     private static MinecraftServer server;
     public static final KingdomManager INSTANCE = new KingdomManager();
 
     private static final Map<UUID, PendingInvite> pendingInvites = new HashMap<>();
     private static final Map<UUID, PendingDeletion> pendingDeletions = new HashMap<>();
-    private long upkeepTickCounter = 0;
+    private static final UpkeepScheduler upkeepScheduler = new UpkeepScheduler();
+    private boolean upkeepDirty = false;
+
+    public static final int MAX_CLAIMS = 25;
+    public static final long CLAIM_COST = 1000; // 10 silver per chunk after the home chunk
+    public static final int MAX_BULK_AREA = 1024; // chunks a single rect/radius/fill may cover
 
     public record PendingInvite(UUID kingdomId, String kingdomName, long expiryTime) {
         public PendingInvite(UUID kingdomId, String kingdomName) {
@@ -35,51 +53,148 @@ public class KingdomManager {
     public static void setServer(MinecraftServer server) { KingdomManager.server = server; }
 
     // ==================== PERSISTENCE ====================
+    public static File getDataFile() {
+        return new File(server.getRunDirectory().toFile(), "asheskingdoms/kingdoms.json");
+    }
+
     public static void saveToFile() throws IOException {
         if (server == null) return;
-        File file = new File(server.getRunDirectory().toFile(), "asheskingdoms/kingdoms.json");
+        saveToFile(getDataFile());
+    }
+
+    /** Writes all kingdoms to the given file; usable without a running server. */
+    public static void saveToFile(File file) throws IOException {
         file.getParentFile().mkdirs();
 
+        KingdomSaveEvent event = new KingdomSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
         try (Writer writer = new FileWriter(file)) {
             new GsonBuilder().setPrettyPrinting().create().toJson(
                     kingdoms.values().stream().map(Kingdom::toJson).toList(), writer
             );
         }
+        long bytes = file.length();
+        PerfStats.recordSave(System.nanoTime() - start, bytes);
+        ModMetrics.recordSave(bytes);
+
+        if (event.shouldCommit()) {
+            event.kingdoms = kingdoms.size();
+            event.bytes = bytes;
+            event.file = file.getName();
+            event.commit();
+        }
     }
 
-
-
     public static void loadFromFile() throws IOException {
         if (server == null) return;
-        File file = new File(server.getRunDirectory().toFile(), "asheskingdoms/kingdoms.json");
+        loadFromFile(getDataFile());
+    }
+
+    /** Replaces all kingdom state with the contents of the given file; usable without a running server. */
+    public static void loadFromFile(File file) throws IOException {
         if (!file.exists()) return;
 
-        kingdoms.clear(); claimedChunks.clear(); pendingInvites.clear(); pendingDeletions.clear();
-        JsonParser.parseReader(new FileReader(file)).getAsJsonArray().forEach(el -> {
-            Kingdom k = Kingdom.fromJson(el.getAsJsonObject());
-            kingdoms.put(k.getName(), k);
-            claimedChunks.addAll(k.getClaimedChunks());
-        });
+        kingdoms.clear(); pendingInvites.clear(); pendingDeletions.clear();
+        try (Reader reader = new FileReader(file)) {
+            JsonParser.parseReader(reader).getAsJsonArray().forEach(el -> {
+                Kingdom k = Kingdom.fromJson(el.getAsJsonObject());
+                kingdoms.put(k.getName(), k);
+            });
+        }
+
+        reindex();
+        upkeepScheduler.clear();
+        kingdoms.values().forEach(upkeepScheduler::schedule);
     }
 
     public static Collection<Kingdom> getAllKingdoms() { return kingdoms.values(); }
 
-    // ==================== CORE OPERATIONS ====================
-    public static Kingdom getKingdomOfPlayer(UUID playerId) {
-        return kingdoms.values().stream().filter(k -> k.getMembers().containsKey(playerId)).findFirst().orElse(null);
+    /** Rebuilds the claim, member and kingdom name indexes; needed after replacing {@link #kingdoms} directly. */
+    public static void reindex() {
+        claimOwners.clear();
+        playerKingdoms.clear();
+        kingdomNames.clear();
+        TerritoryTiles.invalidateAll();
+        TerritoryGeometry.clear();
+        KingdomSummaryCache.clear();
+        kingdoms.values().forEach(k -> {
+            k.getClaimedChunks().forEach(pos -> claimOwners.put(pos.toLong(), k));
+            kingdomNames.add(k.getName());
+            indexMembers(k);
+        });
     }
 
+    public static PrefixIndex getKingdomNameIndex() { return kingdomNames; }
+    public static PrefixIndex getOnlinePlayerIndex() { return onlinePlayerNames; }
+    public static void onPlayerJoin(ServerPlayerEntity player) {
+        onlinePlayerNames.add(player.getName().getString());
+        KingdomSummaryCache.onPlayerJoin(player);
+    }
+    public static void onPlayerLeave(ServerPlayerEntity player) { onlinePlayerNames.remove(player.getName().getString()); }
+
+    // ==================== CORE OPERATIONS ====================
+    public static Kingdom getKingdomOfPlayer(UUID playerId) { return playerKingdoms.get(playerId); }
     public static Kingdom getPlayerKingdom(UUID playerId) { return playerKingdoms.get(playerId); }
-    public static void setPlayerKingdom(UUID playerId, Kingdom kingdom) { playerKingdoms.put(playerId, kingdom); }
-    public static boolean isClaimed(ChunkPos pos) { return claimedChunks.contains(pos); }
+
+    // Membership changes on registered kingdoms go through these; kingdoms still being built are picked up when added
+    static void memberAdded(Kingdom kingdom, UUID playerId) {
+        if (kingdoms.get(kingdom.getName()) == kingdom) playerKingdoms.put(playerId, kingdom);
+    }
+
+    static void memberRemoved(Kingdom kingdom, UUID playerId) {
+        playerKingdoms.remove(playerId, kingdom);
+    }
+
+    private static void indexMembers(Kingdom kingdom) {
+        kingdom.getMembers().keySet().forEach(id -> playerKingdoms.put(id, kingdom));
+    }
+
+    private static void unindexMembers(Kingdom kingdom) {
+        kingdom.getMembers().keySet().forEach(id -> playerKingdoms.remove(id, kingdom));
+    }
+    public static boolean isClaimed(ChunkPos pos) { return claimOwners.containsKey(pos.toLong()); }
 
     public static boolean claimChunkForKingdom(ServerPlayerEntity player, Kingdom kingdom, ChunkPos pos) {
-        if (isClaimed(pos)) return false;
-        claimedChunks.add(pos); kingdom.addClaim(pos);
+        if (!claimChunkForKingdom(kingdom, pos)) return false;
         try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("Save failed: " + e.getMessage()), false); }
         return true;
     }
 
+    /** Records a claim in both the kingdom and the global claim index without saving or messaging. */
+    public static boolean claimChunkForKingdom(Kingdom kingdom, ChunkPos pos) {
+        if (isClaimed(pos) || !kingdom.claimChunk(pos)) return false;
+        indexClaim(pos, kingdom);
+        return true;
+    }
+
+    /** Releases a claim from both the kingdom and the global claim index without checks, saving or messaging. */
+    public static boolean releaseChunkForKingdom(Kingdom kingdom, ChunkPos pos) {
+        if (getKingdomAt(pos) != kingdom || !kingdom.removeClaim(pos)) return false;
+        unindexClaim(pos);
+        return true;
+    }
+
+    private static void unindexClaims(Kingdom kingdom) {
+        TerritoryGeometry.forget(kingdom);
+        kingdom.getClaimedChunks().forEach(KingdomManager::unindexClaim);
+    }
+
+    // Every claim index change goes through these two so the map tiles and outlines see it
+    private static void indexClaim(ChunkPos pos, Kingdom kingdom) {
+        Kingdom previous = claimOwners.put(pos.toLong(), kingdom);
+        if (previous == null) TerritoryTiles.claimAdded(pos.x, pos.z);
+        else if (previous != kingdom) TerritoryTiles.invalidate(pos.x, pos.z);
+        TerritoryGeometry.chunkAdded(kingdom, pos);
+    }
+
+    private static void unindexClaim(ChunkPos pos) {
+        Kingdom owner = claimOwners.remove(pos.toLong());
+        if (owner == null) return;
+        TerritoryTiles.claimRemoved(pos.x, pos.z);
+        TerritoryGeometry.chunkRemoved(owner, pos);
+    }
+
     // ==================== INVITATION SYSTEM ====================
     public static boolean invitePlayer(Kingdom kingdom, ServerPlayerEntity target, ServerPlayerEntity executor) {
         if (!kingdom.hasPermission(executor, "invite")) {
@@ -105,7 +220,6 @@ public class KingdomManager {
         if (kingdom == null) { player.sendMessage(Text.of("§cKingdom gone!"), false); return false; }
 
         kingdom.addMember(player, Kingdom.RANK_MEMBER); pendingInvites.remove(player.getUuid());
-        setPlayerKingdom(player.getUuid(), kingdom);
         try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
 
         player.sendMessage(Text.of("§aJoined " + kingdom.getName() + "!"), false);
@@ -133,8 +247,9 @@ public class KingdomManager {
     }
 
     private static boolean actuallyDeleteKingdom(ServerPlayerEntity player, Kingdom kingdom) {
-        claimedChunks.removeAll(kingdom.getClaimedChunks()); kingdoms.remove(kingdom.getName());
-        pendingDeletions.remove(player.getUuid()); kingdom.getMembers().keySet().forEach(id -> setPlayerKingdom(id, null));
+        unindexClaims(kingdom); kingdoms.remove(kingdom.getName()); kingdomNames.remove(kingdom.getName());
+        KingdomSummaryCache.invalidate(kingdom);
+        pendingDeletions.remove(player.getUuid()); unindexMembers(kingdom);
 
         try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); return false; }
 
@@ -161,15 +276,18 @@ public class KingdomManager {
         if (kingdom == null) { player.sendMessage(Text.of("§cNot in kingdom!"), false); return false; }
         if (kingdom.isOwner(player)) { player.sendMessage(Text.of("§cOwner can't leave!"), false); return false; }
 
-        kingdom.removeMember(player.getUuid()); setPlayerKingdom(player.getUuid(), null);
+        kingdom.removeMember(player.getUuid());
         try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
         player.sendMessage(Text.of("§aLeft " + kingdom.getName()), false); return true;
     }
 
     public static void listKingdoms(ServerPlayerEntity player) {
-        if (kingdoms.isEmpty()) { player.sendMessage(Text.of("§eNo kingdoms"), false); return; }
-        player.sendMessage(Text.of("§6=== Kingdoms ==="), false);
-        kingdoms.values().forEach(k -> player.sendMessage(Text.of(formatKingdomInfo(k)), false));
+        listKingdoms(player, KingdomSummaryCache.Sort.NAME, 1);
+    }
+
+    /** Sends one page of the cached kingdom list as a single message. */
+    public static void listKingdoms(ServerPlayerEntity player, KingdomSummaryCache.Sort sort, int page) {
+        player.sendMessage(KingdomSummaryCache.renderPage(sort, page), false);
     }
 
     public static boolean createKingdom(ServerPlayerEntity player, String name, long cost) {
@@ -177,6 +295,7 @@ public class KingdomManager {
             player.sendMessage(Text.of("§cAlready in kingdom!"), false); return false;
         }
         if (kingdoms.containsKey(name)) { player.sendMessage(Text.of("§cName taken!"), false); return false; }
+        if (isClaimed(new ChunkPos(player.getBlockPos()))) { player.sendMessage(Text.of("§cThis chunk is already claimed!"), false); return false; }
         if (!hasCoins(player, cost)) { player.sendMessage(Text.of("§cNeed " + cost + " bronze!"), false); return false; }
 
         long paid = InventoryCoins.removeCoins(player, cost);
@@ -184,8 +303,10 @@ public class KingdomManager {
         if (paid > cost) InventoryCoins.addCoins(player, paid - cost);
 
         Kingdom kingdom = new Kingdom(name, player, new ChunkPos(player.getBlockPos()));
-        kingdoms.put(name, kingdom); claimedChunks.addAll(kingdom.getClaimedChunks());
-        setPlayerKingdom(player.getUuid(), kingdom);
+        kingdoms.put(name, kingdom); kingdomNames.add(name); kingdom.getClaimedChunks().forEach(pos -> indexClaim(pos, kingdom));
+        indexMembers(kingdom);
+        KingdomSummaryCache.invalidate(kingdom);
+        upkeepScheduler.schedule(kingdom);
         try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
 
         broadcast("§a" + player.getName().getString() + " founded " + name + "!");
@@ -193,7 +314,8 @@ public class KingdomManager {
     }
 
     public static Kingdom getKingdom(String name) { return kingdoms.get(name); }
-    public static Kingdom getKingdomAt(ChunkPos chunk) { return kingdoms.values().stream().filter(k -> k.getClaimedChunks().contains(chunk)).findFirst().orElse(null); }
+    public static Kingdom getKingdomAt(ChunkPos chunk) { return claimOwners.get(chunk.toLong()); }
+    public static Kingdom getKingdomAt(int chunkX, int chunkZ) { return claimOwners.get(ChunkPos.toLong(chunkX, chunkZ)); }
 
     public static boolean assignRank(Kingdom kingdom, ServerPlayerEntity target, String rank, ServerPlayerEntity executor) {
         if (!kingdom.isOwner(executor) && !kingdom.getRank(executor).equals(Kingdom.RANK_ASSISTANT)) {
@@ -209,56 +331,93 @@ public class KingdomManager {
 
     // ==================== UPKEEP & CLAIMS ====================
     public void onServerTick() {
-        if (++upkeepTickCounter >= 72000) { upkeepTickCounter = 0; checkAndCollectUpkeep(); }
-    }
-
-    private void checkAndCollectUpkeep() {
         long now = System.currentTimeMillis();
-        for (Kingdom kingdom : getAllKingdoms()) {
-            if (!kingdom.getSettings().isUpkeepEnabled()) continue;
+        if (upkeepScheduler.hasDue(now) || upkeepDirty) {
+            checkAndCollectUpkeep(now, Math.max(1, AshesKingdoms.getConfig().upkeepKingdomsPerTick));
+        }
+    }
 
+    public static int getUpkeepQueueDepth() { return upkeepScheduler.size(); }
+    public static boolean isUpkeepSavePending() { return INSTANCE.upkeepDirty; }
+    public static int getClaimedChunkCount() { return claimOwners.size(); }
+    public static int getPendingInviteCount() { return pendingInvites.size(); }
+    public static int getPendingDeletionCount() { return pendingDeletions.size(); }
+
+    private void checkAndCollectUpkeep(long now, int quota) {
+        // Only kingdoms whose next collection or dissolution is due come off the queue,
+        // and at most `quota` of them per tick so a large backlog is spread over several ticks
+        UpkeepRunEvent event = new UpkeepRunEvent();
+        event.begin();
+
+        Kingdom kingdom;
+        int processed = 0, collected = 0, failed = 0, dissolved = 0;
+        while (processed < quota && (kingdom = upkeepScheduler.pollDue(now)) != null) {
+            processed++;
             long lastCollection = kingdom.getLastUpkeepCollection();
-            long timeSinceLastCollection = now - lastCollection;
 
             // Check if it's time for upkeep (24 hours)
-            if (timeSinceLastCollection >= 86400000) {
+            if (kingdom.getSettings().isUpkeepEnabled() && now - lastCollection >= UpkeepScheduler.UPKEEP_INTERVAL) {
                 if (kingdom.processUpkeep()) {
                     // Upkeep paid successfully
-                    kingdom.lastUpkeepCollection = lastCollection + 86400000;
-                } else {
+                    kingdom.lastUpkeepCollection = lastCollection + UpkeepScheduler.UPKEEP_INTERVAL;
+                    collected++;
+                    ModMetrics.UPKEEP_COLLECTED.inc();
+                } else if (!kingdom.isFalling()) {
                     // Couldn't pay upkeep - set falling state
                     kingdom.setFalling(true);
+                    failed++;
+                    ModMetrics.UPKEEP_FAILED.inc();
                 }
-                try { saveToFile(); } catch (IOException e) { /* Log error */ }
+                upkeepDirty = true;
             }
 
             // Check for fully fallen kingdoms (24 hours in falling state)
-            if (kingdom.isFalling()) {
-                long timeFallen = now - kingdom.getFallingStartTime();
-                if (timeFallen >= 86400000) {
-                    // Kingdom has been falling for 24 hours - delete it
-                    actuallyDeleteFallenKingdom(kingdom);
-                }
+            if (kingdom.isFalling() && now - kingdom.getFallingStartTime() >= UpkeepScheduler.FALLING_DURATION) {
+                actuallyDeleteFallenKingdom(kingdom);
+                upkeepDirty = true;
+                dissolved++;
+                ModMetrics.KINGDOMS_DISSOLVED.inc();
+                continue;
             }
+
+            // Overdue or disabled kingdoms are retried hourly rather than within the same pass
+            upkeepScheduler.schedule(kingdom, Math.max(UpkeepScheduler.nextDueTime(kingdom), now + UpkeepScheduler.RECHECK_INTERVAL));
+        }
+
+        // One flush once the backlog has drained instead of one per processed kingdom
+        boolean saved = false;
+        if (upkeepDirty && !upkeepScheduler.hasDue(now)) {
+            upkeepDirty = false;
+            saved = true;
+            try { saveToFile(); } catch (IOException e) { KingdomLog.errorLimited("upkeep-save", "Failed to save after upkeep: {}", e.getMessage()); }
+        }
+
+        if (event.shouldCommit()) {
+            event.processed = processed;
+            event.collected = collected;
+            event.failed = failed;
+            event.dissolved = dissolved;
+            event.saved = saved;
+            event.queueDepth = upkeepScheduler.size();
+            event.commit();
         }
     }
 
     private void actuallyDeleteFallenKingdom(Kingdom kingdom) {
-        claimedChunks.removeAll(kingdom.getClaimedChunks());
+        unindexClaims(kingdom);
         kingdoms.remove(kingdom.getName());
+        kingdomNames.remove(kingdom.getName());
+        KingdomSummaryCache.invalidate(kingdom);
+        unindexMembers(kingdom);
 
         // Notify all members
         for (UUID memberId : kingdom.getMembers().keySet()) {
-            setPlayerKingdom(memberId, null);
             ServerPlayerEntity member = server.getPlayerManager().getPlayer(memberId);
             if (member != null) {
                 member.sendMessage(Text.of("§cYour kingdom " + kingdom.getName() + " has fallen due to unpaid upkeep!"), false);
             }
         }
 
-
-
-        try { saveToFile(); } catch (IOException e) { /* Log error */ }
         broadcast("§cThe kingdom of " + kingdom.getName() + " has fallen and been dissolved!");
     }
     public static MinecraftServer getServer() {
@@ -275,42 +434,196 @@ public class KingdomManager {
         if (isClaimed(chunk)) {
             player.sendMessage(Text.of("§cAlready claimed!"), false); return false;
         }
-        if (kingdom.getClaimCount() >= 25) { player.sendMessage(Text.of("§cMax claims!"), false); return false; }
+        if (kingdom.getClaimCount() >= MAX_CLAIMS) { player.sendMessage(Text.of("§cMax claims!"), false); return false; }
         if (!kingdom.getClaimedChunks().isEmpty() && !kingdom.isAdjacent(chunk)) {
             player.sendMessage(Text.of("§cNot adjacent!"), false); return false;
         }
 
-        final long COST = 1000;
         if (!kingdom.getClaimedChunks().isEmpty()) {
             long playerCoins = InventoryCoins.countCoins(player);
-            if (playerCoins < COST) {
+            if (playerCoins < CLAIM_COST) {
                 player.sendMessage(Text.of("§cYou need 10 silver to claim this chunk."), false);
                 return false;
             }
+            if (!payForClaims(player, CLAIM_COST)) return false;
+        }
 
-            long actualPaid = InventoryCoins.removeCoins(player, COST);
+        if (claimChunkForKingdom(kingdom, chunk)) {
+            try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
+            player.sendMessage(Text.of("§aClaimed for " + kingdom.getName() + "!"), false); return true;
+        }
+        return false;
+    }
 
-            // GIVE CHANGE BACK if overpaid
-            if (actualPaid > COST) {
-                long change = actualPaid - COST;
-                InventoryCoins.addCoins(player, change);
-                player.sendMessage(Text.of("§6You received " + formatCoins(change) + " in change."), false);
+    /**
+     * Claims a batch of chunks for the player's kingdom in one step: a single validation
+     * pass over the whole batch, one coin payment, one index update and one save.
+     * Chunks the kingdom already owns are skipped; anything else wrong rejects the batch.
+     */
+    public static boolean claimChunks(ServerPlayerEntity player, Collection<ChunkPos> requested) {
+        Kingdom kingdom = getKingdomOfPlayer(player.getUuid());
+        if (kingdom == null || !kingdom.hasPermission(player, "claim")) {
+            player.sendMessage(Text.of("§cNo permission!"), false); return false;
+        }
+        if (requested.size() > MAX_BULK_AREA) {
+            player.sendMessage(Text.of("§cArea too large! (max " + MAX_BULK_AREA + " chunks)"), false); return false;
+        }
+
+        LinkedHashSet<ChunkPos> batch = new LinkedHashSet<>();
+        int conflicts = 0;
+        for (ChunkPos chunk : requested) {
+            Kingdom owner = getKingdomAt(chunk);
+            if (owner == null) batch.add(chunk);
+            else if (owner != kingdom) conflicts++;
+        }
+        if (batch.isEmpty()) { player.sendMessage(Text.of("§eNothing to claim here."), false); return false; }
+        if (conflicts > 0) {
+            player.sendMessage(Text.of("§c" + conflicts + " chunk(s) in that area belong to other kingdoms!"), false); return false;
+        }
+        if (kingdom.getClaimCount() + batch.size() > MAX_CLAIMS) {
+            player.sendMessage(Text.of("§cMax claims! You can claim " + Math.max(0, MAX_CLAIMS - kingdom.getClaimCount()) + " more chunk(s)."), false);
+            return false;
+        }
+        int detached = countDetached(kingdom, batch);
+        if (detached > 0) {
+            player.sendMessage(Text.of("§c" + detached + " chunk(s) would not connect to your territory!"), false); return false;
+        }
+
+        long cost = CLAIM_COST * batch.size();
+        if (InventoryCoins.countCoins(player) < cost) {
+            player.sendMessage(Text.of("§cYou need " + formatCoins(cost) + " to claim " + batch.size() + " chunks."), false);
+            return false;
+        }
+        if (!payForClaims(player, cost)) return false;
+
+        batch.forEach(chunk -> claimChunkForKingdom(kingdom, chunk));
+        try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
+        player.sendMessage(Text.of("§aClaimed " + batch.size() + " chunks for " + kingdom.getName() + " §7(" + formatCoins(cost) + ")"), false);
+        return true;
+    }
+
+    public static boolean unclaimChunk(ServerPlayerEntity player) {
+        Kingdom kingdom = getKingdomOfPlayer(player.getUuid());
+        if (kingdom == null || !kingdom.hasPermission(player, "unclaim")) {
+            player.sendMessage(Text.of("§cNo permission!"), false); return false;
+        }
+
+        ChunkPos chunk = new ChunkPos(player.getBlockPos());
+        if (getKingdomAt(chunk) != kingdom) { player.sendMessage(Text.of("§cYour kingdom doesn't own this chunk!"), false); return false; }
+        if (chunk.equals(kingdom.getHomeChunk())) { player.sendMessage(Text.of("§cYou can't unclaim your home chunk!"), false); return false; }
+        if (!kingdom.canReleaseClaim(chunk)) {
+            player.sendMessage(Text.of("§cUnclaiming this chunk would cut off part of your territory!"), false); return false;
+        }
+
+        releaseChunkForKingdom(kingdom, chunk);
+        try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
+        player.sendMessage(Text.of("§aUnclaimed chunk from " + kingdom.getName() + "."), false); return true;
+    }
+
+    /**
+     * Releases a batch of the kingdom's chunks in one step: chunks it does not own are
+     * skipped, the home chunk or any chunk whose loss would cut off territory rejects the batch.
+     * One connectivity check for the whole batch and a single save.
+     */
+    public static boolean unclaimChunks(ServerPlayerEntity player, Collection<ChunkPos> requested) {
+        Kingdom kingdom = getKingdomOfPlayer(player.getUuid());
+        if (kingdom == null || !kingdom.hasPermission(player, "unclaim")) {
+            player.sendMessage(Text.of("§cNo permission!"), false); return false;
+        }
+        if (requested.size() > MAX_BULK_AREA) {
+            player.sendMessage(Text.of("§cArea too large! (max " + MAX_BULK_AREA + " chunks)"), false); return false;
+        }
+
+        LinkedHashSet<ChunkPos> batch = new LinkedHashSet<>();
+        for (ChunkPos chunk : requested) if (getKingdomAt(chunk) == kingdom) batch.add(chunk);
+        if (batch.isEmpty()) { player.sendMessage(Text.of("§eYour kingdom owns nothing in that area."), false); return false; }
+        if (batch.contains(kingdom.getHomeChunk())) {
+            player.sendMessage(Text.of("§cYou can't unclaim your home chunk!"), false); return false;
+        }
+
+        List<ChunkPos> blocking = kingdom.findClaimsBlockingRelease(batch);
+        if (!blocking.isEmpty()) {
+            player.sendMessage(Text.of("§cThat would cut off " + blocking.size() + " chunk(s) from your home territory!"), false); return false;
+        }
+
+        batch.forEach(chunk -> releaseChunkForKingdom(kingdom, chunk));
+        try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
+        player.sendMessage(Text.of("§aUnclaimed " + batch.size() + " chunks from " + kingdom.getName() + "."), false);
+        return true;
+    }
+
+    /** Unclaimed chunks enclosed by the kingdom's territory, i.e. not reachable from outside its bounding box. */
+    public static Set<ChunkPos> findEnclosedChunks(Kingdom kingdom) {
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (ChunkPos c : kingdom.getClaimedChunks()) {
+            minX = Math.min(minX, c.x); maxX = Math.max(maxX, c.x);
+            minZ = Math.min(minZ, c.z); maxZ = Math.max(maxZ, c.z);
+        }
+        if (kingdom.getClaimedChunks().isEmpty() || (long) (maxX - minX + 1) * (maxZ - minZ + 1) > MAX_BULK_AREA * 4L) return Set.of();
+
+        // Flood the bounding box (plus a one-chunk margin) from outside; whatever the flood misses is enclosed
+        Set<ChunkPos> outside = new HashSet<>();
+        ArrayDeque<ChunkPos> queue = new ArrayDeque<>();
+        ChunkPos corner = new ChunkPos(minX - 1, minZ - 1);
+        outside.add(corner); queue.add(corner);
+        while (!queue.isEmpty()) {
+            ChunkPos c = queue.poll();
+            for (ChunkPos n : neighbours(c)) {
+                if (n.x < minX - 1 || n.x > maxX + 1 || n.z < minZ - 1 || n.z > maxZ + 1) continue;
+                if (kingdom.getClaimedChunks().contains(n) || !outside.add(n)) continue;
+                queue.add(n);
             }
+        }
 
-            // If underpaid, that's an error
-            if (actualPaid < COST) {
-                player.sendMessage(Text.of("§cPayment error: Could only pay " + formatCoins(actualPaid) + " of " + formatCoins(COST)), false);
-                InventoryCoins.addCoins(player, actualPaid);
-                return false;
+        Set<ChunkPos> enclosed = new LinkedHashSet<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                ChunkPos c = new ChunkPos(x, z);
+                if (!outside.contains(c) && !isClaimed(c)) enclosed.add(c);
             }
         }
+        return enclosed;
+    }
 
-        if (kingdom.claimChunk(chunk)) {
-            claimedChunks.add(chunk);
-            try { saveToFile(); } catch (IOException e) { player.sendMessage(Text.of("§cSave error"), false); }
-            player.sendMessage(Text.of("§aClaimed for " + kingdom.getName() + "!"), false); return true;
+    /** Number of batch chunks that would not connect to the kingdom's existing territory. */
+    private static int countDetached(Kingdom kingdom, Set<ChunkPos> batch) {
+        if (kingdom.getClaimedChunks().isEmpty()) return 0;
+
+        Set<ChunkPos> reached = new HashSet<>();
+        ArrayDeque<ChunkPos> queue = new ArrayDeque<>();
+        for (ChunkPos chunk : batch) {
+            if (kingdom.isAdjacent(chunk)) { reached.add(chunk); queue.add(chunk); }
         }
-        return false;
+        while (!queue.isEmpty()) {
+            for (ChunkPos n : neighbours(queue.poll())) {
+                if (batch.contains(n) && reached.add(n)) queue.add(n);
+            }
+        }
+        return batch.size() - reached.size();
+    }
+
+    private static ChunkPos[] neighbours(ChunkPos c) {
+        return new ChunkPos[] { new ChunkPos(c.x + 1, c.z), new ChunkPos(c.x - 1, c.z), new ChunkPos(c.x, c.z + 1), new ChunkPos(c.x, c.z - 1) };
+    }
+
+    /** Takes exactly {@code cost} from the player, handing back change; refunds and returns false on a short payment. */
+    private static boolean payForClaims(ServerPlayerEntity player, long cost) {
+        long actualPaid = InventoryCoins.removeCoins(player, cost);
+
+        // GIVE CHANGE BACK if overpaid
+        if (actualPaid > cost) {
+            long change = actualPaid - cost;
+            InventoryCoins.addCoins(player, change);
+            player.sendMessage(Text.of("§6You received " + formatCoins(change) + " in change."), false);
+        }
+
+        // If underpaid, that's an error
+        if (actualPaid < cost) {
+            player.sendMessage(Text.of("§cPayment error: Could only pay " + formatCoins(actualPaid) + " of " + formatCoins(cost)), false);
+            InventoryCoins.addCoins(player, actualPaid);
+            return false;
+        }
+        return true;
     }
 
     public boolean removeMember(UUID playerId) {
@@ -318,7 +631,7 @@ public class KingdomManager {
         if (kingdom == null) return false;
         kingdom.revokeAllPlayerClaims(playerId);
         boolean removed = kingdom.removeMember(playerId);
-        if (removed) { setPlayerKingdom(playerId, null); try { saveToFile(); } catch (IOException e) { /* Log */ } }
+        if (removed) { try { saveToFile(); } catch (IOException e) { /* Log */ } }
         return removed;
     }
 
@@ -334,13 +647,6 @@ public class KingdomManager {
         return (gold > 0 ? gold + " gold " : "") + (silver > 0 ? silver + " silver " : "") + (rem > 0 || (gold == 0 && silver == 0) ? rem + " bronze" : "").trim();
     }
 
-    private static String formatKingdomInfo(Kingdom k) {
-        String owner = "Unknown";
-        ServerPlayerEntity ownerPlayer = server.getPlayerManager().getPlayer(k.getOwner());
-        if (ownerPlayer != null) owner = ownerPlayer.getName().getString();
-        return "§b" + k.getName() + " §7- Owner: §a" + owner + " §7- Members: §e" + k.getMembers().size() + " §7- Claims: §6" + k.getClaimedChunks().size();
-    }
-
     private static void notifyMembers(Kingdom kingdom, String message) {
         if (server != null) kingdom.getMembers().keySet().forEach(id -> {
             ServerPlayerEntity member = server.getPlayerManager().getPlayer(id);
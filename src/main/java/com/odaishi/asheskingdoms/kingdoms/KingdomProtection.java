@@ -0,0 +1,56 @@
+/**
+ * KINGDOM PROTECTION RULES
+ *
+ * Pure decision logic behind the block and entity protection callbacks. Given a
+ * player, a chunk and the permission an action needs, decides whether the
+ * action is allowed without touching the world, the player entity or chat.
+ *
+ * DECISION ORDER:
+ * - Unclaimed chunks are wilderness and always allowed
+ * - Personally claimed chunks allow only the claim holder, the leader and assistants
+ * - Other claimed chunks defer to the player's kingdom rank permissions
+ * - A null permission means the action needs no rank permission
+ *
+ * USAGE:
+ * Called by the protection callbacks in AshesKingdoms, which map the outcome to
+ * an ActionResult and a message, and by the headless load-replay harness.
+ * War capture locks are checked separately by the callbacks.
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.UUID;
+
+public final class KingdomProtection {
+    public enum Outcome {
+        WILDERNESS(true),
+        CLAIMED_ALLOWED(true),
+        CLAIMED_DENIED(false),
+        PERSONAL_ALLOWED(true),
+        PERSONAL_DENIED(false);
+
+        private final boolean allowed;
+
+        Outcome(boolean allowed) { this.allowed = allowed; }
+
+        public boolean isAllowed() { return allowed; }
+        public boolean isPersonalClaim() { return this == PERSONAL_ALLOWED || this == PERSONAL_DENIED; }
+    }
+
+    private KingdomProtection() {}
+
+    public static Outcome evaluate(UUID playerId, ChunkPos chunk, String permission) {
+        Kingdom kingdom = KingdomManager.getKingdomAt(chunk);
+        return kingdom == null ? Outcome.WILDERNESS : evaluate(kingdom, playerId, chunk, permission);
+    }
+
+    /** Same as {@link #evaluate(UUID, ChunkPos, String)} when the owning kingdom is already known. */
+    public static Outcome evaluate(Kingdom kingdom, UUID playerId, ChunkPos chunk, String permission) {
+        if (kingdom.hasPersonalClaim(chunk)) {
+            return kingdom.hasPersonalClaimAccess(playerId, chunk) ? Outcome.PERSONAL_ALLOWED : Outcome.PERSONAL_DENIED;
+        }
+        if (permission == null || kingdom.hasPermission(playerId, permission)) return Outcome.CLAIMED_ALLOWED;
+        return Outcome.CLAIMED_DENIED;
+    }
+}
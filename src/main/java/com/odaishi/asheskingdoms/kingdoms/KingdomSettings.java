@@ -40,6 +40,7 @@ public class KingdomSettings {
     private long baseUpkeep; // Daily base upkeep cost in bronze units
     private long claimUpkeep; // Daily upkeep cost per claim in bronze units
     private boolean enableUpkeep; // Whether upkeep system is enabled
+    private int upkeepVersion; // Bumped whenever a treasury setting changes
 
     public KingdomSettings() {
         settings = new HashMap<>();
@@ -80,6 +81,7 @@ public class KingdomSettings {
 
     public void setBaseUpkeep(long baseUpkeep) {
         this.baseUpkeep = baseUpkeep;
+        upkeepVersion++;
     }
 
     public long getClaimUpkeep() {
@@ -88,6 +90,7 @@ public class KingdomSettings {
 
     public void setClaimUpkeep(long claimUpkeep) {
         this.claimUpkeep = claimUpkeep;
+        upkeepVersion++;
     }
 
     public boolean isUpkeepEnabled() {
@@ -96,6 +99,12 @@ public class KingdomSettings {
 
     public void setUpkeepEnabled(boolean enableUpkeep) {
         this.enableUpkeep = enableUpkeep;
+        upkeepVersion++;
+    }
+
+    /** Changes whenever baseUpkeep, claimUpkeep or enableUpkeep is modified, for caching derived costs. */
+    public int getUpkeepVersion() {
+        return upkeepVersion;
     }
 
     /* -------------------- SERIALIZATION -------------------- */
@@ -0,0 +1,172 @@
+/**
+ * KINGDOM SUMMARY CACHE
+ *
+ * Keeps one pre-formatted summary row per kingdom for /kingdom list, so listing
+ * does not look up owners or rebuild strings for every kingdom on every call.
+ *
+ * CACHING:
+ * - Kingdoms mark their row dirty whenever their revision changes (members,
+ *   claims, treasury, falling state); KingdomManager marks created and deleted
+ *   kingdoms. A listing rebuilds only the dirty rows, with no pass over the rest
+ * - reindex() (load, world generation) clears the cache and the next listing
+ *   rebuilds every row once
+ * - Owner names are resolved once per kingdom (online name, then the server's
+ *   user cache). A name that could not be resolved is retried on every rebuild,
+ *   and an owner joining under a different name marks their row dirty
+ * - Sorted orders are kept per sort key and dropped only when some row changed
+ *
+ * RENDERING:
+ * - Pages of PAGE_SIZE rows, sent as one multi-line Text per page
+ * - Sortable by name, members, claims or treasury (largest first)
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.*;
+
+public final class KingdomSummaryCache {
+    public static final int PAGE_SIZE = 10;
+
+    public enum Sort {
+        NAME(Comparator.comparing(Summary::nameKey)),
+        MEMBERS(Comparator.comparingInt(Summary::members).reversed().thenComparing(Summary::nameKey)),
+        CLAIMS(Comparator.comparingInt(Summary::claims).reversed().thenComparing(Summary::nameKey)),
+        TREASURY(Comparator.comparingLong(Summary::treasury).reversed().thenComparing(Summary::nameKey));
+
+        private final Comparator<Summary> order;
+
+        Sort(Comparator<Summary> order) { this.order = order; }
+
+        public static Sort byName(String name) {
+            for (Sort sort : values()) if (sort.name().equalsIgnoreCase(name)) return sort;
+            return null;
+        }
+    }
+
+    private static final String UNKNOWN = "Unknown";
+
+    private record Summary(Kingdom kingdom, String nameKey, UUID ownerId, String ownerName,
+                           int members, int claims, long treasury, String line) {}
+
+    private static final Map<String, Summary> summaries = new HashMap<>();
+    private static final Map<UUID, String> kingdomByOwner = new HashMap<>();
+    private static final Set<Kingdom> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final EnumMap<Sort, List<Summary>> sorted = new EnumMap<>(Sort.class);
+    private static boolean rebuildAll = true;
+
+    private KingdomSummaryCache() {}
+
+    /** Drops every row; the next listing rebuilds them all. */
+    public static void clear() {
+        summaries.clear();
+        kingdomByOwner.clear();
+        dirty.clear();
+        sorted.clear();
+        rebuildAll = true;
+    }
+
+    /** Queues the kingdom's row for rebuilding; also used for created and deleted kingdoms. */
+    public static void invalidate(Kingdom kingdom) {
+        dirty.add(kingdom);
+    }
+
+    /** Re-resolves the owner name of a joining kingdom owner if it was unknown or has changed. */
+    public static void onPlayerJoin(ServerPlayerEntity player) {
+        String kingdomName = kingdomByOwner.get(player.getUuid());
+        Summary summary = kingdomName != null ? summaries.get(kingdomName) : null;
+        if (summary != null && !summary.ownerName().equals(player.getName().getString())) dirty.add(summary.kingdom());
+    }
+
+    public static int pageCount() {
+        refresh();
+        return Math.max(1, (summaries.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /** One page of the kingdom list as a single multi-line message; pages start at 1 and are clamped. */
+    public static Text renderPage(Sort sort, int page) {
+        refresh();
+        if (summaries.isEmpty()) return Text.of("§eNo kingdoms");
+
+        List<Summary> rows = sorted.computeIfAbsent(sort, s -> {
+            List<Summary> list = new ArrayList<>(summaries.values());
+            list.sort(s.order);
+            return list;
+        });
+        int pages = (rows.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        int current = Math.max(1, Math.min(page, pages));
+
+        StringBuilder text = new StringBuilder(64 + PAGE_SIZE * 96);
+        text.append("§6=== Kingdoms (").append(rows.size()).append(") - by ").append(sort.name().toLowerCase(Locale.ROOT))
+                .append(" - page ").append(current).append('/').append(pages).append(" ===");
+        int from = (current - 1) * PAGE_SIZE;
+        for (int i = from; i < Math.min(from + PAGE_SIZE, rows.size()); i++) {
+            text.append("\n§7").append(i + 1).append(". ").append(rows.get(i).line());
+        }
+        if (pages > 1) text.append("\n§7/kingdom list <name|members|claims|treasury> <page>");
+        return Text.of(text.toString());
+    }
+
+    /** The owner's name as shown in summaries; online name first, then the server's user cache. */
+    public static String ownerName(Kingdom kingdom) {
+        Summary summary = summaries.get(kingdom.getName());
+        return summary != null && summary.kingdom() == kingdom && !dirty.contains(kingdom)
+                ? summary.ownerName() : resolveName(kingdom.getOwner());
+    }
+
+    private static void refresh() {
+        if (rebuildAll) {
+            rebuildAll = false;
+            dirty.clear();
+            summaries.clear();
+            kingdomByOwner.clear();
+            for (Kingdom kingdom : KingdomManager.getAllKingdoms()) store(summarize(kingdom, null));
+            sorted.clear();
+            return;
+        }
+        if (dirty.isEmpty()) return;
+
+        for (Kingdom kingdom : dirty) {
+            Summary previous = summaries.get(kingdom.getName());
+            if (KingdomManager.getKingdom(kingdom.getName()) == kingdom) {
+                if (previous != null) kingdomByOwner.remove(previous.ownerId());
+                store(summarize(kingdom, previous));
+            } else if (previous != null && previous.kingdom() == kingdom) {
+                // Deleted since it was listed
+                summaries.remove(kingdom.getName());
+                kingdomByOwner.remove(previous.ownerId());
+            }
+        }
+        dirty.clear();
+        sorted.clear();
+    }
+
+    private static void store(Summary summary) {
+        summaries.put(summary.kingdom().getName(), summary);
+        kingdomByOwner.put(summary.ownerId(), summary.kingdom().getName());
+    }
+
+    private static Summary summarize(Kingdom k, Summary previous) {
+        boolean reuseName = previous != null && previous.kingdom() == k && previous.ownerId().equals(k.getOwner())
+                && !UNKNOWN.equals(previous.ownerName());
+        String ownerName = reuseName ? previous.ownerName() : resolveName(k.getOwner());
+        int members = k.getMembers().size(), claims = k.getClaimCount();
+        String line = "§b" + k.getName() + " §7- Owner: §a" + ownerName
+                + " §7- Members: §e" + members + " §7- Claims: §6" + claims
+                + " §7- Treasury: §6" + KingdomManager.formatCoins(k.getTreasury())
+                + (k.isFalling() ? " §c(falling)" : "");
+        return new Summary(k, k.getName().toLowerCase(Locale.ROOT), k.getOwner(), ownerName, members, claims, k.getTreasury(), line);
+    }
+
+    private static String resolveName(UUID playerId) {
+        MinecraftServer server = KingdomManager.getServer();
+        if (server == null) return UNKNOWN;
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
+        if (player != null) return player.getName().getString();
+        return server.getUserCache() == null ? UNKNOWN
+                : server.getUserCache().getByUuid(playerId).map(GameProfile::getName).orElse(UNKNOWN);
+    }
+}
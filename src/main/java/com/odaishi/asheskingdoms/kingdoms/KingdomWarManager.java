@@ -1,5 +1,7 @@
 package com.odaishi.asheskingdoms.kingdoms;
 
+import com.odaishi.asheskingdoms.metrics.jfr.CaptureTickEvent;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
 import net.minecraft.entity.boss.BossBar;
 import net.minecraft.entity.boss.ServerBossBar;
 import net.minecraft.nbt.NbtCompound;
@@ -183,7 +185,7 @@ public class KingdomWarManager {
                         try {
                             KingdomManager.saveToFile();
                         } catch (Exception e) {
-                            System.err.println("Failed to save war data: " + e.getMessage());
+                            KingdomLog.errorLimited("war-save", "Failed to save war data: {}", e.getMessage());
                         }
                         break;
                     }
@@ -281,6 +283,13 @@ public class KingdomWarManager {
         return Collections.unmodifiableCollection(wars.values());
     }
 
+    public static int getActiveWarCount() {
+        return (int) wars.values().stream().filter(war -> war.active).count();
+    }
+
+    public static int getActiveCaptureCount() { return activeCaptures.size(); }
+    public static int getBossBarCount() { return captureBossBars.size(); }
+
     public static Optional<War> getWarById(UUID id) {
         return Optional.ofNullable(wars.get(id));
     }
@@ -330,7 +339,7 @@ public class KingdomWarManager {
         try {
             KingdomManager.saveToFile();
         } catch (Exception e) {
-            System.err.println("Failed to save war data: " + e.getMessage());
+            KingdomLog.errorLimited("war-save", "Failed to save war data: {}", e.getMessage());
         }
 
         return Optional.of(war);
@@ -369,7 +378,7 @@ public class KingdomWarManager {
             try {
                 KingdomManager.saveToFile();
             } catch (Exception e) {
-                System.err.println("Failed to save war data: " + e.getMessage());
+                KingdomLog.errorLimited("war-save", "Failed to save war data: {}", e.getMessage());
             }
             return true;
         }
@@ -400,11 +409,36 @@ public class KingdomWarManager {
             try {
                 KingdomManager.saveToFile();
             } catch (Exception e) {
-                System.err.println("Failed to save war data: " + e.getMessage());
+                KingdomLog.errorLimited("war-save", "Failed to save war data: {}", e.getMessage());
             }
         }
     }
 
+    /**
+     * Forgets a war entirely, e.g. once its outcome has been settled. Captures this war's
+     * attacker still has in progress against the defender are cancelled along with their
+     * boss bars; captures from other wars, even against the same defender, are left alone.
+     */
+    public static boolean removeWar(UUID warId) {
+        War war = wars.remove(warId);
+        if (war == null) return false;
+
+        // Captures are recorded by the capturing kingdom's owner
+        Kingdom attacker = KingdomManager.getKingdom(war.attacker);
+        if (attacker == null) return true;
+        UUID attackerId = attacker.getOwner();
+
+        activeCaptures.entrySet().removeIf(entry -> {
+            if (!entry.getValue().capturingKingdom.equals(attackerId)) return false;
+            // The same attacker may be at war with someone else; leave captures on their land running
+            Kingdom owner = KingdomManager.getKingdomAt(entry.getKey());
+            if (owner != null && owner != attacker && !owner.getName().equals(war.defender)) return false;
+            cleanupBossBarsForChunk(entry.getKey());
+            return true;
+        });
+        return true;
+    }
+
     private static void handleWarVictory(War war) {
         Kingdom defenderKingdom = KingdomManager.getKingdom(war.defender);
         if (defenderKingdom != null) {
@@ -449,6 +483,9 @@ public class KingdomWarManager {
 
     public static void updateActiveCaptures(MinecraftServer server) {
         if (server == null) return;
+        CaptureTickEvent event = new CaptureTickEvent();
+        event.begin();
+        int completed = 0;
 
         // Clean up old boss bars for players who left
         Iterator<Map.Entry<UUID, ServerBossBar>> bossBarIterator = captureBossBars.entrySet().iterator();
@@ -479,11 +516,22 @@ public class KingdomWarManager {
 
                 // Clean up boss bars for this chunk
                 cleanupBossBarsForChunk(chunk);
+                completed++;
             } else {
                 // Update boss bars for players in this capture zone
                 updateBossBarsForChunk(chunk, progress, server);
             }
         }
+        commitCaptureTick(event, "monitor", completed);
+    }
+
+    private static void commitCaptureTick(CaptureTickEvent event, String pass, int completed) {
+        if (!event.shouldCommit()) return;
+        event.pass = pass;
+        event.activeCaptures = activeCaptures.size();
+        event.completed = completed;
+        event.bossBars = captureBossBars.size();
+        event.commit();
     }
 
     private static void completeCapture(ChunkPos chunk, CaptureProgress progress) {
@@ -503,7 +551,7 @@ public class KingdomWarManager {
                     try {
                         KingdomManager.saveToFile();
                     } catch (Exception e) {
-                        System.err.println("Failed to save war data: " + e.getMessage());
+                        KingdomLog.errorLimited("war-save", "Failed to save war data: {}", e.getMessage());
                     }
                     break;
                 }
@@ -573,6 +621,11 @@ public class KingdomWarManager {
     }
 
     public static void onServerTick() {
+        if (activeCaptures.isEmpty()) return;
+        CaptureTickEvent event = new CaptureTickEvent();
+        event.begin();
+        int completed = 0;
+
         // Clean up expired captures and update progress
         Iterator<Map.Entry<ChunkPos, CaptureProgress>> iterator = activeCaptures.entrySet().iterator();
         while (iterator.hasNext()) {
@@ -584,8 +637,10 @@ public class KingdomWarManager {
                 iterator.remove();
                 completeCapture(entry.getKey(), progress);
                 cleanupBossBarsForChunk(entry.getKey());
+                completed++;
             }
         }
+        commitCaptureTick(event, "tick", completed);
     }
 
     /***********************
@@ -0,0 +1,194 @@
+/**
+ * CHUNK OUTLINE TRACER
+ *
+ * Turns a set of chunks into merged polygons: one outer ring per connected
+ * piece of territory plus a ring for every hole, instead of one square per chunk.
+ *
+ * COORDINATES:
+ * - Rings run along chunk grid lines; vertex (x, z) is the north-west corner of
+ *   chunk (x, z), so multiply by 16 for block coordinates
+ * - Rings list corner vertices only and are not closed (first vertex is not repeated)
+ * - Outer rings run counter-clockwise and holes clockwise with x to the right
+ *   and z up, i.e. territory is always on the left of the direction of travel
+ *
+ * TRACING:
+ * - Boundary edges are the chunk sides whose neighbour is outside the set
+ * - The edge map can be kept up to date one chunk at a time (addCell/removeCell),
+ *   so tracing costs O(boundary) rather than a scan of every chunk
+ * - Where two chunks touch only at a corner, the trace turns left so diagonal
+ *   neighbours become separate polygons and rings never cross themselves
+ * - Each hole is attached to the smallest outer ring containing it
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+public final class OutlineTracer {
+    // Directions in turning order: +x, +z, -x, -z; left of d is (d + 1) & 3
+    private static final int[] DX = { 1, 0, -1, 0 };
+    private static final int[] DZ = { 0, 1, 0, -1 };
+    // Side s of a chunk (south, east, north, west) is the boundary edge running in direction s:
+    // NX/NZ step to the chunk across it, EX/EZ locate its start vertex relative to the chunk.
+    // The neighbour's copy of the side starts where this one ends and runs the opposite way.
+    private static final int[] NX = { 0, 1, 0, -1 };
+    private static final int[] NZ = { -1, 0, 1, 0 };
+    private static final int[] EX = { 0, 1, 1, 0 };
+    private static final int[] EZ = { 0, 0, 1, 1 };
+
+    /** A merged polygon: the outer ring and its holes, as flat [x0, z0, x1, z1, ...] vertex arrays. */
+    public record Polygon(int[] outer, List<int[]> holes) {}
+
+    private OutlineTracer() {}
+
+    /** Polygons covering the chunks in {@code cells} (keys from ChunkPos.toLong). */
+    public static List<Polygon> trace(LongSet cells) {
+        return assemble(traceRings(boundaryEdges(cells)));
+    }
+
+    /**
+     * Outgoing boundary edges per grid vertex as a 4-bit direction mask. Each chunk
+     * contributes the sides facing chunks outside the set, oriented with the chunk on the left.
+     */
+    public static Long2IntOpenHashMap boundaryEdges(LongSet cells) {
+        Long2IntOpenHashMap edges = new Long2IntOpenHashMap();
+        for (long cell : cells) {
+            int x = ChunkPos.getPackedX(cell), z = ChunkPos.getPackedZ(cell);
+            for (int side = 0; side < 4; side++) {
+                if (!cells.contains(ChunkPos.toLong(x + NX[side], z + NZ[side]))) addEdge(edges, x + EX[side], z + EZ[side], side);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Updates {@code edges} for chunk (x, z) joining the set: sides shared with a
+     * member stop being boundary, every other side becomes boundary. {@code inSet}
+     * answers for the neighbours (keys from ChunkPos.toLong).
+     */
+    public static void addCell(Long2IntOpenHashMap edges, LongPredicate inSet, int x, int z) {
+        for (int side = 0; side < 4; side++) {
+            if (inSet.test(ChunkPos.toLong(x + NX[side], z + NZ[side]))) {
+                removeEdge(edges, x + EX[side] + DX[side], z + EZ[side] + DZ[side], (side + 2) & 3);
+            } else {
+                addEdge(edges, x + EX[side], z + EZ[side], side);
+            }
+        }
+    }
+
+    /** The reverse of {@link #addCell}: updates {@code edges} for chunk (x, z) leaving the set. */
+    public static void removeCell(Long2IntOpenHashMap edges, LongPredicate inSet, int x, int z) {
+        for (int side = 0; side < 4; side++) {
+            if (inSet.test(ChunkPos.toLong(x + NX[side], z + NZ[side]))) {
+                addEdge(edges, x + EX[side] + DX[side], z + EZ[side] + DZ[side], (side + 2) & 3);
+            } else {
+                removeEdge(edges, x + EX[side], z + EZ[side], side);
+            }
+        }
+    }
+
+    private static void addEdge(Long2IntOpenHashMap edges, int vx, int vz, int dir) {
+        edges.mergeInt(ChunkPos.toLong(vx, vz), 1 << dir, (a, b) -> a | b);
+    }
+
+    private static void removeEdge(Long2IntOpenHashMap edges, int vx, int vz, int dir) {
+        takeEdge(edges, ChunkPos.toLong(vx, vz), dir);
+    }
+
+    /** Follows the edges into closed rings; the map is left untouched. */
+    public static List<int[]> traceRings(Long2IntMap boundary) {
+        Long2IntOpenHashMap edges = new Long2IntOpenHashMap(boundary);
+        List<int[]> rings = new ArrayList<>();
+
+        while (!edges.isEmpty()) {
+            long startKey = edges.keySet().iterator().nextLong();
+            int startX = ChunkPos.getPackedX(startKey), startZ = ChunkPos.getPackedZ(startKey);
+            int startDir = Integer.numberOfTrailingZeros(edges.get(startKey));
+
+            IntArrayList ring = new IntArrayList();
+            int x = startX, z = startZ, dir = startDir;
+            takeEdge(edges, startKey, dir);
+            while (true) {
+                x += DX[dir];
+                z += DZ[dir];
+                long key = ChunkPos.toLong(x, z);
+                boolean atStart = x == startX && z == startZ;
+                int available = edges.get(key) | (atStart ? 1 << startDir : 0);
+                int next = choose(available, dir);
+                if (next < 0) break; // malformed input; keep what was traced
+                if (next != dir) { ring.add(x); ring.add(z); }
+                if (atStart && next == startDir) break;
+                takeEdge(edges, key, next);
+                dir = next;
+            }
+            if (ring.size() >= 6) rings.add(ring.toIntArray());
+        }
+        return rings;
+    }
+
+    private static void takeEdge(Long2IntOpenHashMap edges, long key, int dir) {
+        int mask = edges.get(key) & ~(1 << dir);
+        if (mask == 0) edges.remove(key); else edges.put(key, mask);
+    }
+
+    // Left turn first, then straight on, then right
+    private static int choose(int available, int incoming) {
+        int left = (incoming + 1) & 3, right = (incoming + 3) & 3;
+        if ((available & (1 << left)) != 0) return left;
+        if ((available & (1 << incoming)) != 0) return incoming;
+        if ((available & (1 << right)) != 0) return right;
+        return -1;
+    }
+
+    /** Twice the signed area; positive for counter-clockwise (outer) rings. */
+    public static long signedArea2(int[] ring) {
+        long sum = 0;
+        for (int i = 0; i < ring.length; i += 2) {
+            int j = (i + 2) % ring.length;
+            sum += (long) ring[i] * ring[j + 1] - (long) ring[j] * ring[i + 1];
+        }
+        return sum;
+    }
+
+    /** Groups traced rings into polygons, attaching each hole to the smallest outer ring around it. */
+    public static List<Polygon> assemble(List<int[]> rings) {
+        List<int[]> outers = new ArrayList<>();
+        List<int[]> holes = new ArrayList<>();
+        for (int[] ring : rings) (signedArea2(ring) > 0 ? outers : holes).add(ring);
+
+        List<Polygon> polygons = new ArrayList<>(outers.size());
+        for (int[] outer : outers) polygons.add(new Polygon(outer, new ArrayList<>()));
+
+        for (int[] hole : holes) {
+            // Centre of the chunk to the left of the hole's first edge lies inside the territory
+            int dx = Integer.signum(hole[2] - hole[0]), dz = Integer.signum(hole[3] - hole[1]);
+            double px = hole[0] + dx * 0.5 - dz * 0.5, pz = hole[1] + dz * 0.5 + dx * 0.5;
+
+            Polygon best = null;
+            long bestArea = Long.MAX_VALUE;
+            for (Polygon polygon : polygons) {
+                long area = signedArea2(polygon.outer());
+                if (area < bestArea && contains(polygon.outer(), px, pz)) { best = polygon; bestArea = area; }
+            }
+            if (best != null) best.holes().add(hole);
+        }
+        return polygons;
+    }
+
+    /** Even-odd point in ring test; the point must not lie on a grid line. */
+    static boolean contains(int[] ring, double px, double pz) {
+        boolean inside = false;
+        for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+            double xi = ring[i], zi = ring[i + 1], xj = ring[j], zj = ring[j + 1];
+            if ((zi > pz) != (zj > pz) && px < (xj - xi) * (pz - zi) / (zj - zi) + xi) inside = !inside;
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * TERRITORY GEOMETRY
+ *
+ * Kingdom territory as shapes rather than chunk sets: merged outlines with
+ * holes plus area statistics, for maps, border particles and /kingdom info.
+ *
+ * CACHING:
+ * - Each kingdom's boundary edges are kept in a map built from its claims the
+ *   first time its geometry is asked for
+ * - KingdomManager reports every claim index change, and the edge map is
+ *   patched for that one chunk (at most four edges) instead of being rebuilt
+ * - Outlines are traced from the edge map on demand and cached until the next
+ *   change; tracing walks only the boundary, never the interior
+ *
+ * VERSION STAMPS:
+ * - Edge maps and outlines carry the kingdom's claim version they were built at
+ * - An update is applied only if the edges were current just before it; a
+ *   kingdom whose claims changed some other way is rebuilt from its claim set
+ *   on the next request
+ *
+ * COORDINATES:
+ * - Chunk grid units, as produced by OutlineTracer; multiply by 16 for blocks
+ *
+ * THREADING:
+ * - Server thread only
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.odaishi.asheskingdoms.metrics.ModMetrics;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class TerritoryGeometry {
+    /**
+     * Merged outlines of one kingdom at a claim version. {@code perimeter} counts
+     * boundary chunk sides, {@code chunks} the claimed area.
+     */
+    public record Outline(long version, List<OutlineTracer.Polygon> polygons, int chunks, int perimeter, int holes) {}
+
+    private static final class Entry {
+        final Long2IntOpenHashMap edges;
+        long version;
+        Outline outline;
+
+        Entry(Long2IntOpenHashMap edges, long version) {
+            this.edges = edges;
+            this.version = version;
+        }
+    }
+
+    private static final Map<Kingdom, Entry> entries = new IdentityHashMap<>();
+    private static long traces;
+    private static long changeStamp;
+
+    private TerritoryGeometry() {}
+
+    /** The kingdom's merged outlines, traced only if its claims changed since the last request. */
+    public static Outline getOutline(Kingdom kingdom) {
+        Entry entry = current(kingdom);
+        if (entry.outline == null || entry.outline.version() != entry.version) {
+            List<OutlineTracer.Polygon> polygons = OutlineTracer.assemble(OutlineTracer.traceRings(entry.edges));
+            int perimeter = 0, holes = 0;
+            for (int mask : entry.edges.values()) perimeter += Integer.bitCount(mask);
+            for (OutlineTracer.Polygon polygon : polygons) holes += polygon.holes().size();
+            entry.outline = new Outline(entry.version, Collections.unmodifiableList(polygons), kingdom.getClaimCount(), perimeter, holes);
+            traces++;
+        }
+        return entry.outline;
+    }
+
+    /**
+     * The kingdom's boundary edges: outgoing direction masks per grid vertex, as
+     * described in OutlineTracer. Read-only view; valid until the next claim change.
+     */
+    public static Long2IntMap getBoundaryEdges(Kingdom kingdom) {
+        return Long2IntMaps.unmodifiable(current(kingdom).edges);
+    }
+
+    private static Entry current(Kingdom kingdom) {
+        Entry entry = entries.get(kingdom);
+        if (entry == null || entry.version != kingdom.getClaimVersion()) {
+            LongOpenHashSet cells = new LongOpenHashSet(kingdom.getClaimCount());
+            for (ChunkPos chunk : kingdom.getClaimedChunks()) cells.add(chunk.toLong());
+            entry = new Entry(OutlineTracer.boundaryEdges(cells), kingdom.getClaimVersion());
+            entries.put(kingdom, entry);
+            ModMetrics.OUTLINE_REBUILDS.inc();
+        }
+        return entry;
+    }
+
+    // ---- Updates from KingdomManager's claim index ----
+
+    /** A chunk joined the kingdom; neighbours are looked up in the claim index. */
+    static void chunkAdded(Kingdom kingdom, ChunkPos pos) {
+        changeStamp++;
+        Entry entry = updatable(kingdom);
+        if (entry == null) return;
+        OutlineTracer.addCell(entry.edges, key -> KingdomManager.getKingdomAt(ChunkPos.getPackedX(key), ChunkPos.getPackedZ(key)) == kingdom, pos.x, pos.z);
+        entry.version = kingdom.getClaimVersion();
+        ModMetrics.OUTLINE_INCREMENTAL_UPDATES.inc();
+    }
+
+    /** A chunk left the kingdom; neighbours are looked up in the claim index. */
+    static void chunkRemoved(Kingdom kingdom, ChunkPos pos) {
+        changeStamp++;
+        Entry entry = updatable(kingdom);
+        if (entry == null) return;
+        OutlineTracer.removeCell(entry.edges, key -> KingdomManager.getKingdomAt(ChunkPos.getPackedX(key), ChunkPos.getPackedZ(key)) == kingdom, pos.x, pos.z);
+        entry.version = kingdom.getClaimVersion();
+        ModMetrics.OUTLINE_INCREMENTAL_UPDATES.inc();
+    }
+
+    // The entry to patch for a single claim change, or null if there is none or it had already fallen behind
+    private static Entry updatable(Kingdom kingdom) {
+        Entry entry = entries.get(kingdom);
+        if (entry == null) return null;
+        if (entry.version != kingdom.getClaimVersion() - 1) {
+            entries.remove(kingdom);
+            return null;
+        }
+        return entry;
+    }
+
+    /** Drops a kingdom's geometry, e.g. when it is deleted. */
+    public static void forget(Kingdom kingdom) {
+        changeStamp++;
+        entries.remove(kingdom);
+    }
+
+    public static void clear() {
+        changeStamp++;
+        entries.clear();
+    }
+
+    /** Bumped on every claim change of any kingdom; lets callers tell when derived data is stale. */
+    public static long getChangeStamp() { return changeStamp; }
+
+    public static int getCachedCount() { return entries.size(); }
+    public static long getTraceCount() { return traces; }
+}
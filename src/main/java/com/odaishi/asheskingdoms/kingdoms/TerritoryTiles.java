@@ -0,0 +1,203 @@
+/**
+ * TERRITORY MAP TILES
+ *
+ * Cached ownership grids for 32x32-chunk regions (the same grid as Minecraft's
+ * region files), used by /kingdom map and the map tile export.
+ *
+ * CACHING:
+ * - A claim count is kept per region; a region with no claims is answered by an
+ *   uncached empty tile after one count lookup, so wilderness costs nothing to map
+ * - A tile for a claimed region holds the owning kingdom of each of its 1024
+ *   chunks, filled with 1024 claim index lookups the first time it is needed
+ * - KingdomManager reports every claim added or removed; that region's tile is
+ *   dropped and every other request for the region is a cache hit
+ * - At most MAX_CACHED_TILES tiles are kept, least recently used evicted first
+ * - Tiles hold no viewer-specific data, so one cached tile serves every player
+ * - An optional change listener hears about every invalidation, so exporters
+ *   can track which regions need redrawing without rescanning the claims
+ *
+ * EXPORT:
+ * - One JSON file per region with claims: a palette of kingdom names and each
+ *   row run-length encoded as [paletteIndex, length, ...] (0 = unclaimed)
+ *
+ * THREADING:
+ * - Server thread only
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class TerritoryTiles {
+    public static final int SHIFT = 5;
+    public static final int SIZE = 1 << SHIFT; // chunks per tile side
+
+    /** Owners of one region's chunks, indexed by (localZ * SIZE + localX); null means unclaimed. */
+    public static final class Tile {
+        public final int regionX, regionZ;
+        private final Kingdom[] owners; // null for a region without claims
+        private int claimed;
+
+        private Tile(int regionX, int regionZ, boolean empty) {
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+            this.owners = empty ? null : new Kingdom[SIZE * SIZE];
+            if (empty) return;
+            int baseX = regionX << SHIFT, baseZ = regionZ << SHIFT;
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    Kingdom owner = KingdomManager.getKingdomAt(baseX + x, baseZ + z);
+                    owners[z * SIZE + x] = owner;
+                    if (owner != null) claimed++;
+                }
+            }
+        }
+
+        /** Owner of a chunk inside this tile, by world chunk coordinates. */
+        public Kingdom ownerAt(int chunkX, int chunkZ) {
+            if (owners == null) return null;
+            return owners[(chunkZ & (SIZE - 1)) * SIZE + (chunkX & (SIZE - 1))];
+        }
+
+        public boolean isEmpty() { return claimed == 0; }
+    }
+
+    /** Told which regions changed; called on the server thread. */
+    public interface ChangeListener {
+        void regionChanged(int regionX, int regionZ);
+        void allChanged();
+    }
+
+    public static final int MAX_CACHED_TILES = 256; // about 1 MB of owner arrays
+
+    private static final Long2ObjectLinkedOpenHashMap<Tile> tiles = new Long2ObjectLinkedOpenHashMap<>();
+    private static final Long2IntOpenHashMap claimsPerRegion = new Long2IntOpenHashMap();
+    private static long builds;
+    private static ChangeListener listener;
+
+    private TerritoryTiles() {}
+
+    /** The tile for a region: an empty one if it has no claims, else cached and built from the claim index on a miss. */
+    public static Tile get(int regionX, int regionZ) {
+        long key = ChunkPos.toLong(regionX, regionZ);
+        if (!claimsPerRegion.containsKey(key)) return new Tile(regionX, regionZ, true);
+
+        Tile tile = tiles.getAndMoveToLast(key);
+        if (tile == null) {
+            tile = new Tile(regionX, regionZ, false);
+            tiles.putAndMoveToLast(key, tile);
+            if (tiles.size() > MAX_CACHED_TILES) tiles.removeFirst();
+            builds++;
+        }
+        return tile;
+    }
+
+    /** Tile containing the given chunk. */
+    public static Tile forChunk(int chunkX, int chunkZ) {
+        return get(chunkX >> SHIFT, chunkZ >> SHIFT);
+    }
+
+    public static void claimAdded(int chunkX, int chunkZ) {
+        claimsPerRegion.addTo(ChunkPos.toLong(chunkX >> SHIFT, chunkZ >> SHIFT), 1);
+        invalidate(chunkX, chunkZ);
+    }
+
+    public static void claimRemoved(int chunkX, int chunkZ) {
+        long key = ChunkPos.toLong(chunkX >> SHIFT, chunkZ >> SHIFT);
+        if (claimsPerRegion.addTo(key, -1) <= 1) claimsPerRegion.remove(key);
+        invalidate(chunkX, chunkZ);
+    }
+
+    /** Drops a region's tile without changing its claim count, e.g. when a claim changes owner. */
+    public static void invalidate(int chunkX, int chunkZ) {
+        tiles.remove(ChunkPos.toLong(chunkX >> SHIFT, chunkZ >> SHIFT));
+        if (listener != null) listener.regionChanged(chunkX >> SHIFT, chunkZ >> SHIFT);
+    }
+
+    /** Drops every tile and recounts claims per region from all kingdoms; used after the claim index is rebuilt. */
+    public static void invalidateAll() {
+        tiles.clear();
+        claimsPerRegion.clear();
+        for (Kingdom kingdom : KingdomManager.getAllKingdoms()) {
+            for (ChunkPos chunk : kingdom.getClaimedChunks()) {
+                claimsPerRegion.addTo(ChunkPos.toLong(chunk.x >> SHIFT, chunk.z >> SHIFT), 1);
+            }
+        }
+        if (listener != null) listener.allChanged();
+    }
+
+    /** Replaces the change listener; null removes it. */
+    public static void setChangeListener(ChangeListener changeListener) {
+        listener = changeListener;
+    }
+
+    public static int getCachedTileCount() { return tiles.size(); }
+    public static long getTileBuildCount() { return builds; }
+
+    /** Region keys (ChunkPos.toLong of region coordinates) that contain at least one claim. */
+    public static LongSet claimedRegions() {
+        return new LongOpenHashSet(claimsPerRegion.keySet());
+    }
+
+    /** Writes r.<x>.<z>.json for every region with claims; returns the number of files written. */
+    public static int exportAll(File dir) throws IOException {
+        dir.mkdirs();
+        int written = 0;
+        for (long key : claimedRegions()) {
+            Tile tile = get(ChunkPos.getPackedX(key), ChunkPos.getPackedZ(key));
+            try (Writer writer = new FileWriter(new File(dir, "r." + tile.regionX + "." + tile.regionZ + ".json"))) {
+                new GsonBuilder().create().toJson(toJson(tile), writer);
+            }
+            written++;
+        }
+        return written;
+    }
+
+    public static JsonObject toJson(Tile tile) {
+        Map<Kingdom, Integer> palette = new IdentityHashMap<>();
+        List<String> names = new ArrayList<>();
+        JsonArray rows = new JsonArray(SIZE);
+        for (int z = 0; z < SIZE; z++) {
+            JsonArray row = new JsonArray();
+            int runIndex = -1, runLength = 0;
+            for (int x = 0; x < SIZE; x++) {
+                Kingdom owner = tile.owners == null ? null : tile.owners[z * SIZE + x];
+                int index = owner == null ? 0 : palette.computeIfAbsent(owner, k -> { names.add(k.getName()); return names.size(); });
+                if (index == runIndex) { runLength++; continue; }
+                if (runLength > 0) { row.add(runIndex); row.add(runLength); }
+                runIndex = index;
+                runLength = 1;
+            }
+            row.add(runIndex);
+            row.add(runLength);
+            rows.add(row);
+        }
+
+        JsonObject obj = new JsonObject();
+        JsonArray region = new JsonArray(2);
+        region.add(tile.regionX);
+        region.add(tile.regionZ);
+        obj.add("region", region);
+        obj.addProperty("size", SIZE);
+        JsonArray paletteJson = new JsonArray(names.size());
+        names.forEach(paletteJson::add);
+        obj.add("palette", paletteJson);
+        obj.add("rows", rows);
+        return obj;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * TERRITORY TRANSFER
+ *
+ * Moves a batch of chunks from one kingdom to another as a single operation,
+ * keeping every claim index consistent.
+ *
+ * TRANSFER RULES:
+ * - Only chunks the source kingdom currently owns are moved; others are skipped
+ * - The source kingdom's home chunk moves like any other; capturing it is the
+ *   war victory condition, so it belongs to the conqueror
+ * - A source kingdom that loses its home chunk but keeps other claims is
+ *   re-homed to its remaining claim nearest the old home, so unclaim and
+ *   connectivity checks still have an anchor
+ * - Personal claims on moved chunks are revoked
+ *
+ * CONSISTENCY:
+ * - The whole batch is validated before anything changes, so a transfer either
+ *   moves every eligible chunk or nothing
+ * - Each chunk goes through KingdomManager's release/claim core, which updates the
+ *   global claim index, both kingdoms' claim sets, distance indexes and upkeep cost
+ * - Cost is O(moved chunks); neither kingdom's full territory is walked
+ *
+ * RECORD:
+ * - One log line and one TerritoryTransferEvent per transfer
+ * - Persistence is left to the caller so it can save once alongside related changes
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.odaishi.asheskingdoms.metrics.jfr.TerritoryTransferEvent;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public final class TerritoryTransfer {
+    public record Result(int moved, int skipped, int personalClaimsRevoked) {}
+
+    private TerritoryTransfer() {}
+
+    public static Result transfer(Kingdom from, Kingdom to, Collection<ChunkPos> chunks) {
+        TerritoryTransferEvent event = new TerritoryTransferEvent();
+        event.begin();
+
+        // Validate the whole batch up front; after this point nothing can fail
+        List<ChunkPos> movable = new ArrayList<>(chunks.size());
+        for (ChunkPos chunk : new LinkedHashSet<>(chunks)) {
+            if (KingdomManager.getKingdomAt(chunk) == from) movable.add(chunk);
+        }
+        int skipped = chunks.size() - movable.size();
+
+        int personalRevoked = 0;
+        if (from != to) {
+            for (ChunkPos chunk : movable) {
+                if (from.hasPersonalClaim(chunk)) personalRevoked++;
+                KingdomManager.releaseChunkForKingdom(from, chunk);
+                KingdomManager.claimChunkForKingdom(to, chunk);
+            }
+            if (!from.getClaimedChunks().contains(from.getHomeChunk())) rehome(from);
+        }
+
+        Result result = new Result(from != to ? movable.size() : 0, skipped, personalRevoked);
+        KingdomLog.info("Territory transfer {} -> {}: {} moved, {} skipped, {} personal claims revoked",
+                from.getName(), to.getName(), result.moved(), result.skipped(), result.personalClaimsRevoked());
+
+        if (event.shouldCommit()) {
+            event.from = from.getName();
+            event.to = to.getName();
+            event.moved = result.moved();
+            event.skipped = result.skipped();
+            event.personalClaimsRevoked = result.personalClaimsRevoked();
+            event.commit();
+        }
+        return result;
+    }
+
+    // Picks the remaining claim nearest the lost home; ties go to the lowest x, then z, so the choice is stable
+    private static void rehome(Kingdom kingdom) {
+        ChunkPos oldHome = kingdom.getHomeChunk();
+        ChunkPos newHome = kingdom.getInnerRing().stream()
+                .min(Comparator.comparingInt((ChunkPos c) -> c.x).thenComparingInt(c -> c.z))
+                .orElse(null);
+        if (newHome == null) return; // nothing left; the kingdom keeps its old home as a marker
+        kingdom.setHomeChunk(newHome);
+        KingdomLog.info("Kingdom {} lost its home chunk {}; re-homed to {}", kingdom.getName(), oldHome, newHome);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * UPKEEP SCHEDULER
+ *
+ * Orders kingdoms by the time their next upkeep event is due so the upkeep pass
+ * only touches kingdoms that actually need processing, instead of scanning every
+ * kingdom once an hour.
+ *
+ * SCHEDULING:
+ * - Min-heap of (due time, kingdom name) entries
+ * - A kingdom is due at the earlier of its next collection and, while falling,
+ *   its dissolution deadline
+ * - At most one live entry per kingdom; superseded entries are discarded lazily
+ *   when they reach the head of the heap
+ * - Due times that moved later (reclaim, forced upkeep) are re-queued on poll
+ * - Each kingdom's due time carries a fixed, name-derived jitter so kingdoms
+ *   created together (or loaded after a restart) do not all fall due at once
+ *
+ * LIFECYCLE:
+ * - Rebuilt from scratch on load
+ * - Kingdoms are scheduled on creation and re-scheduled after each processing
+ * - Deleted kingdoms simply fall out when their entry is polled
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class UpkeepScheduler {
+    public static final long UPKEEP_INTERVAL = 86400000; // 24 hours between collections
+    public static final long FALLING_DURATION = 86400000; // 24 hours before a falling kingdom dissolves
+    public static final long RECHECK_INTERVAL = 3600000; // 1 hour retry for overdue/disabled kingdoms
+    public static final long JITTER_WINDOW = 1800000; // due times are spread over 30 minutes
+
+    private record Entry(long dueAt, String kingdomName) {}
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::dueAt));
+    private final Map<String, Long> scheduled = new HashMap<>();
+
+    public void clear() {
+        queue.clear();
+        scheduled.clear();
+    }
+
+    public void schedule(Kingdom kingdom) {
+        schedule(kingdom, nextDueTime(kingdom));
+    }
+
+    public void schedule(Kingdom kingdom, long dueAt) {
+        scheduled.put(kingdom.getName(), dueAt);
+        queue.add(new Entry(dueAt, kingdom.getName()));
+    }
+
+    /** Number of kingdoms currently waiting in the queue. */
+    public int size() { return scheduled.size(); }
+
+    /** Whether the head of the queue is due; may report a stale entry that the next poll discards. */
+    public boolean hasDue(long now) {
+        return !queue.isEmpty() && queue.peek().dueAt() <= now;
+    }
+
+    /**
+     * Removes and returns the next kingdom whose upkeep is due at {@code now}, or null if none is.
+     * The caller is responsible for re-scheduling the kingdom after processing it.
+     */
+    public Kingdom pollDue(long now) {
+        while (!queue.isEmpty() && queue.peek().dueAt() <= now) {
+            Entry entry = queue.poll();
+            Long current = scheduled.get(entry.kingdomName());
+            if (current == null || current != entry.dueAt()) continue; // superseded entry
+
+            Kingdom kingdom = KingdomManager.getKingdom(entry.kingdomName());
+            if (kingdom == null) { scheduled.remove(entry.kingdomName()); continue; }
+
+            long actualDue = nextDueTime(kingdom);
+            if (actualDue > now) { schedule(kingdom, actualDue); continue; }
+
+            scheduled.remove(entry.kingdomName());
+            return kingdom;
+        }
+        return null;
+    }
+
+    public static long nextDueTime(Kingdom kingdom) {
+        long due = kingdom.getLastUpkeepCollection() + UPKEEP_INTERVAL;
+        if (kingdom.isFalling()) due = Math.min(due, kingdom.getFallingStartTime() + FALLING_DURATION);
+        return due + jitter(kingdom.getName());
+    }
+
+    /** Stable per-kingdom offset in [0, JITTER_WINDOW), so the same kingdom always lands in the same slot. */
+    static long jitter(String kingdomName) {
+        int h = kingdomName.hashCode() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), JITTER_WINDOW);
+    }
+}
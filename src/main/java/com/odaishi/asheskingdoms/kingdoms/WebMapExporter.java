@@ -0,0 +1,380 @@
+/**
+ * WEB MAP EXPORTER
+ *
+ * Keeps a folder of GeoJSON files in the world directory for an offline web map
+ * (Leaflet, OpenLayers, ...): kingdom territory as merged outlines plus the
+ * frontlines of active wars. Off by default.
+ *
+ * OUTPUT (<world>/<webMapDirectory>/):
+ * - r.<x>.<z>.geojson for each 32x32-chunk region with territory or frontlines
+ *   - One MultiPolygon feature per kingdom: merged outlines, holes included
+ *   - One MultiLineString feature per war: chunk sides where attacker and defender meet
+ * - index.json listing the exported regions, rewritten whenever that list changes
+ * - Coordinates are block [x, z]; outer rings are counter-clockwise with z up,
+ *   so flip z for a north-up viewer
+ *
+ * INCREMENTAL UPDATES:
+ * - TerritoryTiles reports every region whose claims change; only those regions
+ *   are redrawn on the next pass, every webMapIntervalSeconds
+ * - Starting or ending a war marks the regions of both kingdoms dirty
+ * - Regions left with nothing to draw have their file deleted
+ * - After a restart or a failed write everything is redrawn once
+ *
+ * THREADING:
+ * - Dirty regions are snapshotted on the server thread (owner names per chunk
+ *   and frontline edges), then traced and written on the exporter thread
+ * - Files go through a temp file and an atomic move, so a viewer never loads
+ *   a half-written region
+ */
+package com.odaishi.asheskingdoms.kingdoms;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.odaishi.asheskingdoms.metrics.TickProfiler;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
+import com.odaishi.asheskingdoms.utils.ModConfig;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class WebMapExporter {
+    private static final Gson GSON = new Gson();
+    private static final int SHIFT = TerritoryTiles.SHIFT;
+    private static final int SIZE = TerritoryTiles.SIZE;
+    private static final int BLOCKS_PER_CHUNK = 16;
+
+    /** An active war as drawn on the map. */
+    private record Front(String warId, String attacker, String defender) {}
+
+    /** One region detached from game state: owner names per chunk (null if none) and frontline segments. */
+    private record RegionSnapshot(int regionX, int regionZ, String[] owners, Map<Front, IntArrayList> fronts) {
+        boolean isEmpty() { return owners == null && fronts.isEmpty(); }
+    }
+
+    /** One pass of work for the exporter thread; index is null when the region list is unchanged. */
+    private record Batch(List<RegionSnapshot> regions, long[] index) {}
+
+    private static ScheduledExecutorService executor;
+    private static volatile boolean writeFailed;
+
+    // Server thread only
+    private static final LongOpenHashSet dirtyRegions = new LongOpenHashSet();
+    private static final LongOpenHashSet exportedRegions = new LongOpenHashSet();
+    private static boolean allDirty;
+    private static Set<Front> lastWars = Set.of();
+
+    private static final TerritoryTiles.ChangeListener LISTENER = new TerritoryTiles.ChangeListener() {
+        @Override public void regionChanged(int regionX, int regionZ) { dirtyRegions.add(ChunkPos.toLong(regionX, regionZ)); }
+        @Override public void allChanged() { allDirty = true; }
+    };
+
+    private WebMapExporter() {}
+
+    public static synchronized void start(MinecraftServer server, ModConfig config) {
+        if (!config.webMapEnabled) return;
+        stop();
+
+        Path dir = server.getSavePath(WorldSavePath.ROOT).resolve(config.webMapDirectory).normalize();
+        dirtyRegions.clear();
+        exportedRegions.clear();
+        findExistingRegions(dir);
+        lastWars = Set.of();
+        allDirty = true;
+        writeFailed = false;
+        TerritoryTiles.setChangeListener(LISTENER);
+
+        ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AshesKingdoms Web Map");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = exporter;
+
+        long interval = Math.max(1, config.webMapIntervalSeconds);
+        exporter.scheduleAtFixedRate(() -> {
+            if (server.isStopped()) return;
+            server.execute(() -> {
+                long start = TickProfiler.begin();
+                Batch batch = collect();
+                TickProfiler.end(TickProfiler.Subsystem.WEB_MAP, start);
+                if (batch == null) return;
+                try {
+                    exporter.execute(() -> write(dir, batch));
+                } catch (RejectedExecutionException e) {
+                    // Exporter stopped between the snapshot and the write
+                }
+            });
+        }, interval, interval, TimeUnit.SECONDS);
+        KingdomLog.info("Web map export enabled, writing to {}", dir);
+    }
+
+    public static synchronized void stop() {
+        TerritoryTiles.setChangeListener(null);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // Files left by an earlier run count as exported, so regions emptied while offline get deleted
+    private static void findExistingRegions(Path dir) {
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "r.*.geojson")) {
+            for (Path file : files) {
+                String[] parts = file.getFileName().toString().split("\\.");
+                if (parts.length != 4) continue;
+                try {
+                    exportedRegions.add(ChunkPos.toLong(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        } catch (IOException e) {
+            KingdomLog.warn("Could not list existing web map files in {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // ---- Server thread ----
+
+    private static Batch collect() {
+        if (writeFailed) {
+            writeFailed = false;
+            allDirty = true;
+        }
+
+        Map<String, Front> wars = activeWars();
+        Set<Front> current = new HashSet<>(wars.values());
+        if (!current.equals(lastWars)) {
+            Set<String> involved = new HashSet<>();
+            for (Front front : current) if (!lastWars.contains(front)) { involved.add(front.attacker()); involved.add(front.defender()); }
+            for (Front front : lastWars) if (!current.contains(front)) { involved.add(front.attacker()); involved.add(front.defender()); }
+            for (String name : involved) {
+                Kingdom kingdom = KingdomManager.getKingdom(name);
+                if (kingdom == null) continue;
+                for (ChunkPos chunk : kingdom.getClaimedChunks()) dirtyRegions.add(ChunkPos.toLong(chunk.x >> SHIFT, chunk.z >> SHIFT));
+            }
+            lastWars = current;
+        }
+
+        if (allDirty) {
+            dirtyRegions.addAll(TerritoryTiles.claimedRegions());
+            dirtyRegions.addAll(exportedRegions);
+            allDirty = false;
+        }
+        if (dirtyRegions.isEmpty()) return null;
+
+        // A frontline on a region's west or north edge is drawn by the neighbouring region
+        LongOpenHashSet regions = new LongOpenHashSet(dirtyRegions);
+        if (!wars.isEmpty()) {
+            for (long key : dirtyRegions) {
+                int rx = ChunkPos.getPackedX(key), rz = ChunkPos.getPackedZ(key);
+                regions.add(ChunkPos.toLong(rx - 1, rz));
+                regions.add(ChunkPos.toLong(rx, rz - 1));
+            }
+        }
+        dirtyRegions.clear();
+
+        List<RegionSnapshot> snapshots = new ArrayList<>();
+        boolean indexChanged = false;
+        for (long key : regions) {
+            RegionSnapshot snapshot = snapshot(ChunkPos.getPackedX(key), ChunkPos.getPackedZ(key), wars);
+            if (snapshot.isEmpty()) {
+                if (!exportedRegions.remove(key)) continue; // never had a file
+                indexChanged = true;
+            } else if (exportedRegions.add(key)) {
+                indexChanged = true;
+            }
+            snapshots.add(snapshot);
+        }
+        return new Batch(snapshots, indexChanged ? exportedRegions.toLongArray() : null);
+    }
+
+    private static Map<String, Front> activeWars() {
+        Map<String, Front> wars = new HashMap<>();
+        for (KingdomWarManager.War war : KingdomWarManager.getAllWars()) {
+            if (war.active) wars.put(pairKey(war.attacker, war.defender), new Front(war.id.toString(), war.attacker, war.defender));
+        }
+        return wars;
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) < 0 ? a + '\0' + b : b + '\0' + a;
+    }
+
+    private static RegionSnapshot snapshot(int regionX, int regionZ, Map<String, Front> wars) {
+        TerritoryTiles.Tile tile = TerritoryTiles.get(regionX, regionZ);
+        if (tile.isEmpty()) return new RegionSnapshot(regionX, regionZ, null, Map.of());
+
+        String[] owners = new String[SIZE * SIZE];
+        Map<Front, IntArrayList> fronts = new HashMap<>();
+        int baseX = regionX << SHIFT, baseZ = regionZ << SHIFT;
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                Kingdom owner = tile.ownerAt(baseX + x, baseZ + z);
+                if (owner == null) continue;
+                owners[z * SIZE + x] = owner.getName();
+                if (wars.isEmpty()) continue;
+                // Each chunk checks its east and south sides, so every shared side is seen once
+                int cx = baseX + x, cz = baseZ + z;
+                addFront(fronts, wars, owner, KingdomManager.getKingdomAt(cx + 1, cz), cx + 1, cz, cx + 1, cz + 1);
+                addFront(fronts, wars, owner, KingdomManager.getKingdomAt(cx, cz + 1), cx, cz + 1, cx + 1, cz + 1);
+            }
+        }
+        return new RegionSnapshot(regionX, regionZ, owners, fronts);
+    }
+
+    private static void addFront(Map<Front, IntArrayList> fronts, Map<String, Front> wars, Kingdom owner, Kingdom other,
+                                 int x1, int z1, int x2, int z2) {
+        if (other == null || other == owner) return;
+        Front front = wars.get(pairKey(owner.getName(), other.getName()));
+        if (front == null) return;
+        IntArrayList segments = fronts.computeIfAbsent(front, f -> new IntArrayList());
+        segments.add(x1);
+        segments.add(z1);
+        segments.add(x2);
+        segments.add(z2);
+    }
+
+    // ---- Exporter thread ----
+
+    private static void write(Path dir, Batch batch) {
+        try {
+            Files.createDirectories(dir);
+            for (RegionSnapshot region : batch.regions()) {
+                Path file = dir.resolve("r." + region.regionX() + "." + region.regionZ() + ".geojson");
+                if (region.isEmpty()) {
+                    Files.deleteIfExists(file);
+                } else {
+                    writeAtomically(file, GSON.toJson(toGeoJson(region)));
+                }
+            }
+            if (batch.index() != null) writeAtomically(dir.resolve("index.json"), GSON.toJson(indexJson(batch.index())));
+        } catch (IOException e) {
+            writeFailed = true;
+            KingdomLog.errorLimited("web-map", "Failed to write web map to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static void writeAtomically(Path file, String json) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, json, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static JsonObject toGeoJson(RegionSnapshot region) {
+        JsonArray features = new JsonArray();
+
+        if (region.owners() != null) {
+            // TreeMap keeps feature order stable between exports
+            Map<String, LongOpenHashSet> territories = new TreeMap<>();
+            int baseX = region.regionX() << SHIFT, baseZ = region.regionZ() << SHIFT;
+            for (int i = 0; i < region.owners().length; i++) {
+                String owner = region.owners()[i];
+                if (owner == null) continue;
+                territories.computeIfAbsent(owner, name -> new LongOpenHashSet())
+                        .add(ChunkPos.toLong(baseX + (i & (SIZE - 1)), baseZ + (i >> SHIFT)));
+            }
+            territories.forEach((name, chunks) -> features.add(territoryFeature(name, chunks)));
+        }
+        region.fronts().forEach((front, segments) -> features.add(frontFeature(front, segments)));
+
+        JsonObject collection = new JsonObject();
+        collection.addProperty("type", "FeatureCollection");
+        collection.add("region", pair(region.regionX(), region.regionZ()));
+        collection.add("features", features);
+        return collection;
+    }
+
+    private static JsonObject territoryFeature(String kingdom, LongOpenHashSet chunks) {
+        JsonArray polygons = new JsonArray();
+        for (OutlineTracer.Polygon polygon : OutlineTracer.trace(chunks)) {
+            JsonArray rings = new JsonArray();
+            rings.add(ringJson(polygon.outer()));
+            for (int[] hole : polygon.holes()) rings.add(ringJson(hole));
+            polygons.add(rings);
+        }
+
+        JsonObject properties = new JsonObject();
+        properties.addProperty("kind", "territory");
+        properties.addProperty("kingdom", kingdom);
+        properties.addProperty("chunks", chunks.size());
+        properties.addProperty("colour", String.format("#%06x", kingdom.hashCode() & 0xFFFFFF));
+        return feature("MultiPolygon", polygons, properties);
+    }
+
+    private static JsonObject frontFeature(Front front, IntArrayList segments) {
+        JsonArray lines = new JsonArray();
+        for (int i = 0; i < segments.size(); i += 4) {
+            JsonArray line = new JsonArray(2);
+            line.add(pair(segments.getInt(i) * BLOCKS_PER_CHUNK, segments.getInt(i + 1) * BLOCKS_PER_CHUNK));
+            line.add(pair(segments.getInt(i + 2) * BLOCKS_PER_CHUNK, segments.getInt(i + 3) * BLOCKS_PER_CHUNK));
+            lines.add(line);
+        }
+
+        JsonObject properties = new JsonObject();
+        properties.addProperty("kind", "frontline");
+        properties.addProperty("war", front.warId());
+        properties.addProperty("attacker", front.attacker());
+        properties.addProperty("defender", front.defender());
+        return feature("MultiLineString", lines, properties);
+    }
+
+    private static JsonObject feature(String geometryType, JsonArray coordinates, JsonObject properties) {
+        JsonObject geometry = new JsonObject();
+        geometry.addProperty("type", geometryType);
+        geometry.add("coordinates", coordinates);
+
+        JsonObject feature = new JsonObject();
+        feature.addProperty("type", "Feature");
+        feature.add("geometry", geometry);
+        feature.add("properties", properties);
+        return feature;
+    }
+
+    // GeoJSON rings are closed: the first position is repeated at the end
+    private static JsonArray ringJson(int[] ring) {
+        JsonArray positions = new JsonArray(ring.length / 2 + 1);
+        for (int i = 0; i < ring.length; i += 2) positions.add(pair(ring[i] * BLOCKS_PER_CHUNK, ring[i + 1] * BLOCKS_PER_CHUNK));
+        positions.add(pair(ring[0] * BLOCKS_PER_CHUNK, ring[1] * BLOCKS_PER_CHUNK));
+        return positions;
+    }
+
+    private static JsonObject indexJson(long[] regions) {
+        JsonArray list = new JsonArray(regions.length);
+        for (long key : regions) list.add(pair(ChunkPos.getPackedX(key), ChunkPos.getPackedZ(key)));
+
+        JsonObject index = new JsonObject();
+        index.addProperty("regionSize", SIZE * BLOCKS_PER_CHUNK);
+        index.addProperty("updated", System.currentTimeMillis());
+        index.add("regions", list);
+        return index;
+    }
+
+    private static JsonArray pair(int a, int b) {
+        JsonArray pair = new JsonArray(2);
+        pair.add(a);
+        pair.add(b);
+        return pair;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * LATENCY HISTOGRAM
+ *
+ * Fixed-size, log-linear histogram of nanosecond latencies in the style of
+ * HdrHistogram: every power of two is split into 8 linear sub-buckets, so any
+ * recorded value is reported within 12.5% of its true value.
+ *
+ * PROPERTIES:
+ * - Recording is a couple of bit operations and an array increment, no allocation
+ * - Covers 0 ns up to the full long range in 488 buckets
+ * - Count, sum and exact maximum are tracked alongside the buckets
+ *
+ * THREADING:
+ * - Not synchronized; record, read and reset from the server thread only
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[indexOf(nanos)]++;
+        count++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /** Adds every sample recorded in {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = sum = max = 0;
+    }
+
+    public long count() { return count; }
+    public long sum() { return sum; }
+    public long max() { return max; }
+    public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+    /** Upper bound of the bucket holding the given quantile (0..1), capped at the recorded maximum. */
+    public long percentile(double quantile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    /** Samples at or below {@code value}, resolved to the enclosing bucket (within 12.5%). */
+    public long countAtOrBelow(long value) {
+        if (value < 0) return 0;
+        int last = indexOf(value);
+        long total = 0;
+        for (int i = 0; i <= last; i++) total += counts[i];
+        return total;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int index) {
+        return index + 1 >= BUCKETS ? Long.MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+}
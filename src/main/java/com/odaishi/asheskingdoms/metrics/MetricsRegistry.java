@@ -0,0 +1,106 @@
+/**
+ * METRICS REGISTRY
+ *
+ * Named counters, gauges and latency histograms, grouped into families and
+ * rendered in the Prometheus text exposition format (version 0.0.4).
+ *
+ * METRIC TYPES:
+ * - Counter: monotonically increasing long, incremented at the call site
+ * - Gauge: read from a supplier at scrape time, so it costs nothing between scrapes
+ * - Histogram: exported from an existing LatencyHistogram with fixed bucket
+ *   boundaries in seconds; the underlying histogram is not copied
+ *
+ * LABELS:
+ * - Passed pre-rendered, e.g. {@code op="remove"}; one series per distinct label string
+ *
+ * THREADING:
+ * - Registration, increments and scrape() all happen on the server thread;
+ *   exporters only ever see the finished text
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+public final class MetricsRegistry {
+    public enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    public static final class Counter {
+        private long value;
+
+        public void inc() { value++; }
+        public void add(long amount) { if (amount > 0) value += amount; }
+        public long get() { return value; }
+    }
+
+    private record Family(String name, String help, Type type, Map<String, Object> series) {}
+
+    /** Upper bounds, in seconds, of the exported histogram buckets. */
+    private static final double[] HISTOGRAM_BOUNDS = {
+            1e-6, 5e-6, 1e-5, 5e-5, 1e-4, 5e-4, 1e-3, 5e-3, 1e-2, 5e-2, 0.1, 0.5, 1, 5
+    };
+
+    private static final Map<String, Family> families = new LinkedHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static Counter counter(String name, String help) { return counter(name, help, ""); }
+
+    public static Counter counter(String name, String help, String labels) {
+        return (Counter) family(name, help, Type.COUNTER).series().computeIfAbsent(labels, l -> new Counter());
+    }
+
+    public static void gauge(String name, String help, LongSupplier supplier) { gauge(name, help, "", supplier); }
+
+    public static void gauge(String name, String help, String labels, LongSupplier supplier) {
+        family(name, help, Type.GAUGE).series().put(labels, supplier);
+    }
+
+    /** Exports a nanosecond LatencyHistogram as a Prometheus histogram in seconds. */
+    public static void histogram(String name, String help, String labels, LatencyHistogram histogram) {
+        family(name, help, Type.HISTOGRAM).series().put(labels, histogram);
+    }
+
+    private static Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type, new LinkedHashMap<>()));
+        if (family.type() != type) throw new IllegalArgumentException(name + " is already registered as a " + family.type());
+        return family;
+    }
+
+    /** Renders every registered metric; call on the server thread. */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ').append(family.type().name().toLowerCase()).append('\n');
+
+            family.series().forEach((labels, metric) -> {
+                switch (family.type()) {
+                    case COUNTER -> sample(out, family.name(), labels, ((Counter) metric).get());
+                    case GAUGE -> sample(out, family.name(), labels, ((LongSupplier) metric).getAsLong());
+                    case HISTOGRAM -> histogramSamples(out, family.name(), labels, (LatencyHistogram) metric);
+                }
+            });
+        }
+        return out.toString();
+    }
+
+    private static void histogramSamples(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (double bound : HISTOGRAM_BOUNDS) {
+            sample(out, name + "_bucket", prefix + "le=\"" + bound + "\"", histogram.countAtOrBelow((long) (bound * 1e9)));
+        }
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"", histogram.count());
+        out.append(name).append("_sum");
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(histogram.sum() / 1e9).append('\n');
+        sample(out, name + "_count", labels, histogram.count());
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * ASHES KINGDOMS METRICS
+ *
+ * The mod's metric definitions. Counters are incremented by the subsystems
+ * that own the events; gauges and histograms read existing state at scrape
+ * time so they add no work to the tick.
+ *
+ * COVERAGE:
+ * - Kingdoms, members, claimed chunks and personal claims
+ * - Active wars, captures and capture boss bars
+ * - Saves: count, bytes and duration
+ * - Upkeep: collections, kingdoms set falling and dissolved, queue depth
+ * - Economy: inventory coin operations and bronze moved, per operation
+ * - Protection callback latency per handler and outcome
+ * - Territory outline cache size, full rebuilds and incremental updates
+ * - Rolling average tick cost per subsystem
+ *
+ * NOTES:
+ * - Duration histograms are cleared by /kingdom admin perf reset; Prometheus
+ *   treats that as a counter reset, which rate() already handles
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import com.odaishi.asheskingdoms.kingdoms.BorderParticleVisualizer;
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import com.odaishi.asheskingdoms.kingdoms.TerritoryGeometry;
+import com.odaishi.asheskingdoms.noapi.PendingCredits;
+
+public final class ModMetrics {
+    public static final MetricsRegistry.Counter SAVES =
+            MetricsRegistry.counter("asheskingdoms_saves_total", "Full saves of kingdoms.json");
+    public static final MetricsRegistry.Counter SAVE_BYTES =
+            MetricsRegistry.counter("asheskingdoms_save_bytes_total", "Bytes written by full saves");
+    public static final MetricsRegistry.Counter UPKEEP_COLLECTED =
+            MetricsRegistry.counter("asheskingdoms_upkeep_collections_total", "Successful upkeep collections");
+    public static final MetricsRegistry.Counter UPKEEP_FAILED =
+            MetricsRegistry.counter("asheskingdoms_upkeep_failures_total", "Kingdoms set falling for unpaid upkeep");
+    public static final MetricsRegistry.Counter KINGDOMS_DISSOLVED =
+            MetricsRegistry.counter("asheskingdoms_kingdoms_dissolved_total", "Fallen kingdoms dissolved");
+    public static final MetricsRegistry.Counter OUTLINE_REBUILDS =
+            MetricsRegistry.counter("asheskingdoms_outline_rebuilds_total", "Territory edge maps rebuilt from a full claim set");
+    public static final MetricsRegistry.Counter OUTLINE_INCREMENTAL_UPDATES =
+            MetricsRegistry.counter("asheskingdoms_outline_incremental_updates_total", "Territory edge maps patched for a single claim change");
+
+    private static final String[] ECONOMY_OPERATIONS = {"count", "remove", "add"};
+    private static final MetricsRegistry.Counter[] ECONOMY_OPS = new MetricsRegistry.Counter[ECONOMY_OPERATIONS.length];
+    private static final MetricsRegistry.Counter[] ECONOMY_BRONZE = new MetricsRegistry.Counter[ECONOMY_OPERATIONS.length];
+
+    static {
+        for (int i = 0; i < ECONOMY_OPERATIONS.length; i++) {
+            String labels = "op=\"" + ECONOMY_OPERATIONS[i] + "\"";
+            ECONOMY_OPS[i] = MetricsRegistry.counter("asheskingdoms_economy_ops_total", "Inventory coin operations", labels);
+            ECONOMY_BRONZE[i] = MetricsRegistry.counter("asheskingdoms_economy_bronze_total", "Bronze moved by inventory coin operations", labels);
+        }
+    }
+
+    private static boolean registered;
+
+    private ModMetrics() {}
+
+    /** Registers the gauges and histograms; counters register themselves on class load. */
+    public static void register() {
+        if (registered) return;
+        registered = true;
+
+        MetricsRegistry.gauge("asheskingdoms_kingdoms", "Existing kingdoms", () -> KingdomManager.getAllKingdoms().size());
+        MetricsRegistry.gauge("asheskingdoms_members", "Members across all kingdoms",
+                () -> KingdomManager.getAllKingdoms().stream().mapToLong(k -> k.getMembers().size()).sum());
+        MetricsRegistry.gauge("asheskingdoms_claimed_chunks", "Chunks claimed by any kingdom", KingdomManager::getClaimedChunkCount);
+        MetricsRegistry.gauge("asheskingdoms_personal_claims", "Personal claims across all kingdoms",
+                () -> KingdomManager.getAllKingdoms().stream().mapToLong(Kingdom::getPersonalClaimCount).sum());
+        MetricsRegistry.gauge("asheskingdoms_wars_active", "Active wars", KingdomWarManager::getActiveWarCount);
+        MetricsRegistry.gauge("asheskingdoms_captures_active", "Chunks currently being captured", KingdomWarManager::getActiveCaptureCount);
+        MetricsRegistry.gauge("asheskingdoms_capture_bossbars", "Capture boss bars shown to players", KingdomWarManager::getBossBarCount);
+        MetricsRegistry.gauge("asheskingdoms_upkeep_queue_depth", "Kingdoms waiting in the upkeep queue", KingdomManager::getUpkeepQueueDepth);
+        MetricsRegistry.gauge("asheskingdoms_pending_credits", "Players with credits queued for their next join", PendingCredits::size);
+        MetricsRegistry.gauge("asheskingdoms_border_viewers", "Players shown border particles", BorderParticleVisualizer::getViewerCount);
+        MetricsRegistry.gauge("asheskingdoms_outline_cache_kingdoms", "Kingdoms with cached territory outlines", TerritoryGeometry::getCachedCount);
+
+        for (TickProfiler.Subsystem subsystem : TickProfiler.Subsystem.values()) {
+            MetricsRegistry.gauge("asheskingdoms_tick_avg_nanos", "Average nanoseconds per tick over the profiler window",
+                    "subsystem=\"" + subsystem.name().toLowerCase() + "\"", () -> TickProfiler.average(subsystem));
+        }
+
+        MetricsRegistry.histogram("asheskingdoms_save_duration_seconds", "Full save duration", "", PerfStats.getSaveTimes());
+        for (ProtectionTimings.Handler handler : ProtectionTimings.Handler.values()) {
+            for (ProtectionTimings.Outcome outcome : ProtectionTimings.Outcome.values()) {
+                MetricsRegistry.histogram("asheskingdoms_protection_check_seconds", "Sampled protection callback latency",
+                        "handler=\"" + handler.name().toLowerCase() + "\",outcome=\"" + outcome.label + "\"",
+                        ProtectionTimings.get(handler, outcome));
+            }
+        }
+    }
+
+    public static void recordSave(long bytes) {
+        SAVES.inc();
+        SAVE_BYTES.add(bytes);
+    }
+
+    /** Counts an inventory coin operation: "count", "remove" or "add". */
+    public static void recordEconomyOp(String operation, long bronze) {
+        for (int i = 0; i < ECONOMY_OPERATIONS.length; i++) {
+            if (ECONOMY_OPERATIONS[i].equals(operation)) {
+                ECONOMY_OPS[i].inc();
+                if (!operation.equals("count")) ECONOMY_BRONZE[i].add(bronze);
+                return;
+            }
+        }
+    }
+}
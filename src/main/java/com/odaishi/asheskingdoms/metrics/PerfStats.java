@@ -0,0 +1,63 @@
+/**
+ * PERFORMANCE COUNTERS
+ *
+ * Server-wide counters behind /kingdom admin perf that do not belong to a single
+ * subsystem: save cost and the server thread's allocation rate.
+ *
+ * TRACKED:
+ * - Save duration histogram, last and total bytes written
+ * - Bytes allocated by the server thread since the last reset, read from
+ *   com.sun.management.ThreadMXBean where the JVM supports it
+ *
+ * LIFECYCLE:
+ * - Reset on server start and by /kingdom admin perf reset
+ * - Read and written from the server thread only
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import java.lang.management.ManagementFactory;
+
+public final class PerfStats {
+    private static final LatencyHistogram saveTimes = new LatencyHistogram();
+    private static long lastSaveBytes;
+    private static long totalSaveBytes;
+    private static long resetAt = System.currentTimeMillis();
+    private static Thread serverThread;
+    private static long allocatedAtReset = -1;
+
+    private PerfStats() {}
+
+    public static void recordSave(long nanos, long bytes) {
+        saveTimes.record(nanos);
+        lastSaveBytes = bytes;
+        totalSaveBytes += bytes;
+    }
+
+    public static LatencyHistogram getSaveTimes() { return saveTimes; }
+    public static long getLastSaveBytes() { return lastSaveBytes; }
+    public static long getTotalSaveBytes() { return totalSaveBytes; }
+    public static long getResetAt() { return resetAt; }
+
+    public static void reset(Thread thread) {
+        saveTimes.reset();
+        lastSaveBytes = totalSaveBytes = 0;
+        resetAt = System.currentTimeMillis();
+        serverThread = thread;
+        allocatedAtReset = allocatedBytes(thread);
+    }
+
+    /** Bytes the server thread allocated since the last reset, or -1 if the JVM cannot measure it. */
+    public static long getAllocatedSinceReset() {
+        if (allocatedAtReset < 0) return -1;
+        long now = allocatedBytes(serverThread);
+        return now < 0 ? -1 : now - allocatedAtReset;
+    }
+
+    /** Total bytes allocated by a thread, or -1 if unsupported. */
+    public static long allocatedBytes(Thread thread) {
+        if (thread == null) return -1;
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) return -1;
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) return -1;
+        return bean.getThreadAllocatedBytes(thread.threadId());
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * PROMETHEUS EXPORTER
+ *
+ * Publishes the MetricsRegistry in Prometheus text format, to a file for the
+ * node exporter's textfile collector, to a loopback HTTP endpoint, or both.
+ * Both outputs are off by default.
+ *
+ * SNAPSHOTS:
+ * - Every metricsIntervalSeconds the snapshot is rebuilt on the server thread,
+ *   so gauges read game state without locking
+ * - File writes happen on the exporter thread, via a temp file and an atomic
+ *   move so a scrape never sees a half-written file
+ * - HTTP requests are served from the latest snapshot and never touch game state
+ *
+ * HTTP ENDPOINT:
+ * - JDK built-in com.sun.net.httpserver, bound to 127.0.0.1 only
+ * - GET /metrics
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import com.odaishi.asheskingdoms.utils.KingdomLog;
+import com.odaishi.asheskingdoms.utils.ModConfig;
+import com.sun.net.httpserver.HttpServer;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class PrometheusExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static ScheduledExecutorService executor;
+    private static HttpServer httpServer;
+    private static volatile byte[] snapshot = new byte[0];
+
+    private PrometheusExporter() {}
+
+    public static synchronized void start(MinecraftServer server, ModConfig config) {
+        if (!config.metricsFileEnabled && !config.metricsHttpEnabled) return;
+        stop();
+        ModMetrics.register();
+
+        ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AshesKingdoms Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = exporter;
+
+        Path file = config.metricsFileEnabled ? new File(server.getRunDirectory().toFile(), config.metricsFile).toPath() : null;
+        long interval = Math.max(1, config.metricsIntervalSeconds);
+        exporter.scheduleAtFixedRate(() -> {
+            if (server.isStopped()) return;
+            server.execute(() -> {
+                long start = TickProfiler.begin();
+                byte[] body = MetricsRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+                TickProfiler.end(TickProfiler.Subsystem.METRICS, start);
+                snapshot = body;
+                if (file == null) return;
+                try {
+                    exporter.execute(() -> writeFile(file, body));
+                } catch (RejectedExecutionException e) {
+                    // Exporter stopped between the scrape and the write
+                }
+            });
+        }, 0, interval, TimeUnit.SECONDS);
+
+        if (config.metricsHttpEnabled) {
+            try {
+                httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.metricsHttpPort), 0);
+                httpServer.setExecutor(exporter);
+                httpServer.createContext("/metrics", exchange -> {
+                    byte[] body = snapshot;
+                    exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                httpServer.start();
+                KingdomLog.info("Metrics available at http://127.0.0.1:{}/metrics", config.metricsHttpPort);
+            } catch (IOException e) {
+                httpServer = null;
+                KingdomLog.error("Failed to start metrics endpoint on port {}: {}", config.metricsHttpPort, e.getMessage());
+            }
+        }
+    }
+
+    public static synchronized void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void writeFile(Path file, byte[] body) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, body);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            KingdomLog.errorLimited("metrics-file", "Failed to write metrics file {}: {}", file, e.getMessage());
+        }
+    }
+}
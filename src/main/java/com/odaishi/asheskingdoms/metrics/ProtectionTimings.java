@@ -0,0 +1,121 @@
+/**
+ * PROTECTION CALLBACK TIMINGS
+ *
+ * Latency histograms for the block and entity protection callbacks, split by
+ * handler and by the decision the handler reached, so tick time spent on
+ * protection can be attributed precisely.
+ *
+ * DIMENSIONS:
+ * - Handler: ATTACK_BLOCK, USE_BLOCK, USE_ENTITY
+ * - Outcome: wilderness, claimed-allowed, claimed-denied, personal-claim
+ *   (capture-locked chunks count as claimed-denied)
+ *
+ * SAMPLING:
+ * - Times one in every protectionTimingSampleRate events (config); 1 times
+ *   every event, 0 disables timing entirely
+ * - Unsampled events cost one counter increment; nothing is allocated either way
+ * - Client-side callback invocations in singleplayer are never timed
+ *
+ * REPORTING:
+ * - Sampled events are also emitted as asheskingdoms.ProtectionCheck JFR events
+ * - /kingdom admin timings [reset]
+ * - A summary line logged by the periodic cleanup task
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import com.odaishi.asheskingdoms.AshesKingdoms;
+import com.odaishi.asheskingdoms.kingdoms.KingdomProtection;
+import com.odaishi.asheskingdoms.metrics.jfr.ProtectionCheckEvent;
+import net.minecraft.util.ActionResult;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ProtectionTimings {
+    public enum Handler { ATTACK_BLOCK, USE_BLOCK, USE_ENTITY }
+
+    public enum Outcome {
+        WILDERNESS("wilderness"),
+        CLAIMED_ALLOWED("claimed-allowed"),
+        CLAIMED_DENIED("claimed-denied"),
+        PERSONAL_CLAIM("personal-claim");
+
+        public final String label;
+
+        Outcome(String label) { this.label = label; }
+
+        public static Outcome of(KingdomProtection.Outcome outcome) {
+            return switch (outcome) {
+                case WILDERNESS -> WILDERNESS;
+                case CLAIMED_ALLOWED -> CLAIMED_ALLOWED;
+                case CLAIMED_DENIED -> CLAIMED_DENIED;
+                case PERSONAL_ALLOWED, PERSONAL_DENIED -> PERSONAL_CLAIM;
+            };
+        }
+    }
+
+    private static final LatencyHistogram[][] histograms = new LatencyHistogram[Handler.values().length][Outcome.values().length];
+    private static int sinceLastSample;
+    private static long resetAt = System.currentTimeMillis();
+
+    static {
+        for (LatencyHistogram[] row : histograms) {
+            for (int i = 0; i < row.length; i++) row[i] = new LatencyHistogram();
+        }
+    }
+
+    private ProtectionTimings() {}
+
+    /** Start timestamp if this event is sampled, otherwise 0. */
+    public static long begin(World world) {
+        if (world.isClient) return 0;
+        int rate = AshesKingdoms.getConfig().protectionTimingSampleRate;
+        if (rate <= 0 || ++sinceLastSample < rate) return 0;
+        sinceLastSample = 0;
+        return System.nanoTime();
+    }
+
+    /** Records a sampled event and passes its result through, so handlers can {@code return end(...)}. */
+    public static ActionResult end(Handler handler, Outcome outcome, long start, ActionResult result) {
+        if (start == 0) return result;
+        long elapsed = System.nanoTime() - start;
+        histograms[handler.ordinal()][outcome.ordinal()].record(elapsed);
+
+        ProtectionCheckEvent event = new ProtectionCheckEvent();
+        if (event.isEnabled()) {
+            event.handler = handler.name();
+            event.outcome = outcome.label;
+            event.latency = elapsed;
+            event.commit();
+        }
+        return result;
+    }
+
+    public static LatencyHistogram get(Handler handler, Outcome outcome) {
+        return histograms[handler.ordinal()][outcome.ordinal()];
+    }
+
+    public static long getResetAt() { return resetAt; }
+
+    public static void reset() {
+        for (LatencyHistogram[] row : histograms) {
+            for (LatencyHistogram histogram : row) histogram.reset();
+        }
+        resetAt = System.currentTimeMillis();
+    }
+
+    /** Per-handler totals on one line, or null if nothing was sampled since the last reset. */
+    public static String summaryLine() {
+        List<String> parts = new ArrayList<>();
+        for (Handler handler : Handler.values()) {
+            LatencyHistogram merged = new LatencyHistogram();
+            for (Outcome outcome : Outcome.values()) merged.add(get(handler, outcome));
+            if (merged.count() == 0) continue;
+
+            parts.add(String.format("%s n=%d mean=%.1fus p99=%.1fus max=%.1fus", handler, merged.count(),
+                    merged.mean() / 1000.0, merged.percentile(0.99) / 1000.0, merged.max() / 1000.0));
+        }
+        return parts.isEmpty() ? null : "Protection timings: " + String.join("; ", parts);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * TICK PROFILER
+ *
+ * Attributes server tick time to AshesKingdoms subsystems and warns when the
+ * mod's share of the 50 ms tick budget grows too large.
+ *
+ * SUBSYSTEMS:
+ * - WAR: KingdomWarManager.onServerTick capture progress
+ * - UPKEEP: KingdomManager upkeep queue processing
+ * - CAPTURE_MONITOR: boss bar and capture zone updates
+ * - CLEANUP: the periodic expired invite / personal claim sweep
+ * - METRICS: building the Prometheus snapshot
+ * - BORDERS: per-player border crossing checks
+ * - BORDER_PARTICLES: /kingdom border particle refreshes
+ * - WEB_MAP: web map region snapshots
+ *
+ * WINDOW:
+ * - Time is accumulated per subsystem during a tick and rolled into a ring of
+ *   the last tickProfilerWindow ticks when the tick ends
+ * - Rolling averages are maintained incrementally; worst cases are computed
+ *   over the window on demand
+ * - Scheduled tasks run between ticks are charged to the tick that follows
+ *
+ * WARNINGS:
+ * - When the rolling average of the mod's total exceeds tickBudgetWarnFraction
+ *   of 50 ms, a rate-limited warning names the costliest subsystem
+ *
+ * THREADING:
+ * - Server thread only
+ */
+package com.odaishi.asheskingdoms.metrics;
+
+import com.odaishi.asheskingdoms.AshesKingdoms;
+import com.odaishi.asheskingdoms.utils.KingdomLog;
+import com.odaishi.asheskingdoms.utils.ModConfig;
+
+public final class TickProfiler {
+    public enum Subsystem { WAR, UPKEEP, CAPTURE_MONITOR, CLEANUP, METRICS, BORDERS, BORDER_PARTICLES, WEB_MAP }
+
+    public static final long TICK_BUDGET_NANOS = 50_000_000L;
+    private static final int SUBSYSTEMS = Subsystem.values().length;
+
+    private static final long[] current = new long[SUBSYSTEMS];
+    private static long[][] window; // [tick slot][subsystem]
+    private static final long[] windowSums = new long[SUBSYSTEMS];
+    private static int slot;
+    private static int filled;
+
+    private TickProfiler() {}
+
+    /** Start timestamp, or 0 when profiling is disabled. */
+    public static long begin() {
+        return AshesKingdoms.getConfig().tickProfilerEnabled ? System.nanoTime() : 0;
+    }
+
+    public static void end(Subsystem subsystem, long start) {
+        if (start != 0) current[subsystem.ordinal()] += System.nanoTime() - start;
+    }
+
+    public static void time(Subsystem subsystem, Runnable task) {
+        long start = begin();
+        try {
+            task.run();
+        } finally {
+            end(subsystem, start);
+        }
+    }
+
+    /** Rolls this tick's totals into the window; call once at the end of every server tick. */
+    public static void endTick() {
+        ModConfig config = AshesKingdoms.getConfig();
+        if (!config.tickProfilerEnabled) return;
+        if (window == null) window = new long[Math.max(1, config.tickProfilerWindow)][SUBSYSTEMS];
+
+        long[] outgoing = window[slot];
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            windowSums[i] += current[i] - outgoing[i];
+            outgoing[i] = current[i];
+            current[i] = 0;
+        }
+        slot = (slot + 1) % window.length;
+        if (filled < window.length) filled++;
+
+        if (filled == window.length && config.tickBudgetWarnFraction > 0) {
+            double share = (double) averageTotal() / TICK_BUDGET_NANOS;
+            if (share > config.tickBudgetWarnFraction) {
+                Subsystem worst = Subsystem.WAR;
+                for (Subsystem s : Subsystem.values()) if (average(s) > average(worst)) worst = s;
+                KingdomLog.warnLimited("tick-budget", "AshesKingdoms is using {}% of the tick budget over the last {} ticks (avg {} us/tick, mostly {})",
+                        Math.round(share * 1000) / 10.0, filled, averageTotal() / 1000, worst);
+            }
+        }
+    }
+
+    public static int getWindowTicks() { return filled; }
+
+    /** Average nanoseconds per tick spent in a subsystem over the window. */
+    public static long average(Subsystem subsystem) {
+        return filled == 0 ? 0 : windowSums[subsystem.ordinal()] / filled;
+    }
+
+    public static long averageTotal() {
+        long total = 0;
+        for (Subsystem s : Subsystem.values()) total += average(s);
+        return total;
+    }
+
+    /** Longest single-tick cost of a subsystem in the window. */
+    public static long worst(Subsystem subsystem) {
+        if (window == null) return 0;
+        long worst = 0;
+        for (int t = 0; t < filled; t++) worst = Math.max(worst, window[t][subsystem.ordinal()]);
+        return worst;
+    }
+
+    /** Longest single-tick cost of the whole mod in the window. */
+    public static long worstTotal() {
+        if (window == null) return 0;
+        long worst = 0;
+        for (int t = 0; t < filled; t++) {
+            long total = 0;
+            for (long nanos : window[t]) total += nanos;
+            worst = Math.max(worst, total);
+        }
+        return worst;
+    }
+
+    public static void reset() {
+        window = null;
+        java.util.Arrays.fill(current, 0);
+        java.util.Arrays.fill(windowSums, 0);
+        slot = filled = 0;
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * JFR EVENT: CAPTURE TICK
+ *
+ * One pass over active war captures, either the per-tick progress check or
+ * the once-a-second boss bar monitor.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.CaptureTick")
+@Label("Capture Tick")
+@Category({"AshesKingdoms", "War"})
+@Description("Update of active war captures and capture boss bars")
+@StackTrace(false)
+public class CaptureTickEvent extends Event {
+    @Label("Pass")
+    @Description("tick or monitor")
+    public String pass;
+
+    @Label("Active Captures")
+    public int activeCaptures;
+
+    @Label("Captures Completed")
+    public int completed;
+
+    @Label("Boss Bars")
+    public int bossBars;
+}
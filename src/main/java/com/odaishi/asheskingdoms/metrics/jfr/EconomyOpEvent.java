@@ -0,0 +1,29 @@
+/**
+ * JFR EVENT: ECONOMY OPERATION
+ *
+ * A coin count, removal or payout against a player's inventory. Amounts are
+ * in bronze units.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.EconomyOp")
+@Label("Economy Operation")
+@Category({"AshesKingdoms", "Economy"})
+@Description("Inventory coin operation")
+@StackTrace(false)
+public class EconomyOpEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Requested")
+    public long requested;
+
+    @Label("Result")
+    @Description("Balance for count, amount actually moved for remove and add")
+    public long result;
+}
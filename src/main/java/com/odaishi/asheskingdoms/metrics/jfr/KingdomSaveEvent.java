@@ -0,0 +1,27 @@
+/**
+ * JFR EVENT: KINGDOM SAVE
+ *
+ * One full rewrite of kingdoms.json. Duration covers serialization and the
+ * file write, so saves can be lined up against GC pauses and long ticks in
+ * JDK Mission Control.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.KingdomSave")
+@Label("Kingdom Save")
+@Category({"AshesKingdoms", "Persistence"})
+@Description("Full save of all kingdoms to disk")
+@StackTrace(false)
+public class KingdomSaveEvent extends Event {
+    @Label("Kingdoms Written")
+    public int kingdoms;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+
+    @Label("File")
+    public String file;
+}
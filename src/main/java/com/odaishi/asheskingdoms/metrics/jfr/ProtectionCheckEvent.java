@@ -0,0 +1,26 @@
+/**
+ * JFR EVENT: PROTECTION CHECK
+ *
+ * A protection callback decision, emitted only for events picked by the
+ * ProtectionTimings sampler so recording stays cheap on busy servers.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.ProtectionCheck")
+@Label("Protection Check")
+@Category({"AshesKingdoms", "Protection"})
+@Description("Sampled block or entity protection callback")
+@StackTrace(false)
+public class ProtectionCheckEvent extends Event {
+    @Label("Handler")
+    public String handler;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+}
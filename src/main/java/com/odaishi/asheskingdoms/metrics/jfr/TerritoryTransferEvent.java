@@ -0,0 +1,31 @@
+/**
+ * JFR EVENT: TERRITORY TRANSFER
+ *
+ * One batch of chunks moved between kingdoms by TerritoryTransfer, e.g. when a
+ * fallen kingdom's captured land is claimed by the victor.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.TerritoryTransfer")
+@Label("Territory Transfer")
+@Category({"AshesKingdoms", "Territory"})
+@Description("Batch of claims moved from one kingdom to another")
+@StackTrace(false)
+public class TerritoryTransferEvent extends Event {
+    @Label("From Kingdom")
+    public String from;
+
+    @Label("To Kingdom")
+    public String to;
+
+    @Label("Chunks Moved")
+    public int moved;
+
+    @Label("Chunks Skipped")
+    public int skipped;
+
+    @Label("Personal Claims Revoked")
+    public int personalClaimsRevoked;
+}
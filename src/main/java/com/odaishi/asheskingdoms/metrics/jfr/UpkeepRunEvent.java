@@ -0,0 +1,34 @@
+/**
+ * JFR EVENT: UPKEEP RUN
+ *
+ * One upkeep pass on the server thread: the due kingdoms taken off the upkeep
+ * queue in a tick, what happened to them, and whether the pass ended in a save.
+ */
+package com.odaishi.asheskingdoms.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("asheskingdoms.UpkeepRun")
+@Label("Upkeep Run")
+@Category({"AshesKingdoms", "Upkeep"})
+@Description("Upkeep collection pass over due kingdoms")
+@StackTrace(false)
+public class UpkeepRunEvent extends Event {
+    @Label("Kingdoms Processed")
+    public int processed;
+
+    @Label("Upkeep Collected")
+    public int collected;
+
+    @Label("Kingdoms Set Falling")
+    public int failed;
+
+    @Label("Kingdoms Dissolved")
+    public int dissolved;
+
+    @Label("Saved")
+    public boolean saved;
+
+    @Label("Queue Depth")
+    public int queueDepth;
+}
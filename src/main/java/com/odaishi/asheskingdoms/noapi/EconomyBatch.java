@@ -0,0 +1,97 @@
+/**
+ * BATCHED ECONOMY OPERATIONS
+ *
+ * Applies a list of (player, delta) balance changes as one all-or-nothing
+ * operation. Intended for mass payouts and refunds such as war reparations,
+ * kingdom dissolution refunds and tax distribution.
+ *
+ * BATCH SEMANTICS:
+ * - Deltas for the same player are merged so each purse is touched once
+ * - Online players are resolved once and applied in a single pass
+ * - Credits to offline players are deferred to PendingCredits and persisted
+ *   with one save for the whole batch
+ * - Debits require the player to be online with sufficient balance
+ * - Any validation failure rejects the batch before anything is applied
+ * - A failure while applying, including failing to save the offline credits,
+ *   rolls back every change already made
+ *
+ * CURRENCY UNITS:
+ * - All deltas are in bronze units; positive credits, negative debits
+ */
+
+package com.odaishi.asheskingdoms.noapi;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.IOException;
+import java.util.*;
+
+public final class EconomyBatch {
+    private static MinecraftServer server;
+
+    private EconomyBatch() {}
+
+    public static void setServer(MinecraftServer server) { EconomyBatch.server = server; }
+
+    /** Applies every operation or none of them. Returns true only if the whole batch succeeded. */
+    public static boolean apply(NoApi api, List<NoApi.BalanceOp> ops) {
+        if (server == null || ops.isEmpty()) return ops.isEmpty();
+
+        Map<UUID, Long> deltas = new LinkedHashMap<>();
+        for (NoApi.BalanceOp op : ops) deltas.merge(op.playerId(), op.delta(), Long::sum);
+
+        // Resolve every player once and validate before touching any purse
+        Map<ServerPlayerEntity, Long> online = new LinkedHashMap<>();
+        Map<UUID, Long> offline = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Long> entry : deltas.entrySet()) {
+            long delta = entry.getValue();
+            if (delta == 0) continue;
+
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(entry.getKey());
+            if (player != null) {
+                if (delta < 0 && api.getBalance(player) < -delta) return false;
+                online.put(player, delta);
+            } else if (delta > 0) {
+                offline.put(entry.getKey(), delta);
+            } else {
+                return false; // Debits cannot be deferred to an offline player
+            }
+        }
+
+        // Apply online changes, undoing the ones already made if any of them fails
+        List<Map.Entry<ServerPlayerEntity, Long>> applied = new ArrayList<>(online.size());
+        for (Map.Entry<ServerPlayerEntity, Long> entry : online.entrySet()) {
+            if (!applyDelta(api, entry.getKey(), entry.getValue())) {
+                rollback(api, applied);
+                return false;
+            }
+            applied.add(entry);
+        }
+
+        // Offline credits only count once they are on disk; otherwise undo the whole batch
+        if (!offline.isEmpty()) {
+            try {
+                PendingCredits.addAll(offline);
+            } catch (IOException e) {
+                NOLog.error("Failed to save pending credits, rolling back batch: %s", e.getMessage());
+                rollback(api, applied);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void rollback(NoApi api, List<Map.Entry<ServerPlayerEntity, Long>> applied) {
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            Map.Entry<ServerPlayerEntity, Long> undo = applied.get(i);
+            if (!applyDelta(api, undo.getKey(), -undo.getValue())) {
+                NOLog.error("Rollback failed for %s (%d bronze)", undo.getKey().getUuid(), -undo.getValue());
+            }
+        }
+    }
+
+    private static boolean applyDelta(NoApi api, ServerPlayerEntity player, long delta) {
+        return delta > 0 ? api.deposit(player, delta) : api.withdraw(player, -delta);
+    }
+}
@@ -30,9 +30,10 @@ import org.apache.logging.log4j.Logger;
 
 public final class NOLog {
     private static final Logger LOG = LogManager.getLogger("NO-Compat");
-    public static void info(String s, Object... args) { LOG.info(String.format(s, args)); }
-    public static void warn(String s, Object... args) { LOG.warn(String.format(s, args)); }
-    public static int error(String s, Object... args) { LOG.error(String.format(s, args));
+    // Formatting is skipped entirely when the level is disabled
+    public static void info(String s, Object... args) { if (LOG.isInfoEnabled()) LOG.info(String.format(s, args)); }
+    public static void warn(String s, Object... args) { if (LOG.isWarnEnabled()) LOG.warn(String.format(s, args)); }
+    public static int error(String s, Object... args) { if (LOG.isErrorEnabled()) LOG.error(String.format(s, args));
         return 0;
     }
 }
\ No newline at end of file
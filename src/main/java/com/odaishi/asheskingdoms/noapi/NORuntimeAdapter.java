@@ -42,6 +42,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -243,6 +244,11 @@ public final class NORuntimeAdapter implements NoApi {
         return deposit(player, amount);
     }
 
+    @Override
+    public boolean applyBatch(List<BalanceOp> ops) {
+        return EconomyBatch.apply(this, ops);
+    }
+
     @Override
     public boolean isAvailable() {
         return false;
@@ -8,6 +8,7 @@
  * - Balance checking for players and UUIDs
  * - Currency deposits and withdrawals
  * - Balance modification with transaction safety
+ * - Batched all-or-nothing balance changes for mass payouts
  * - Availability checking for NO integration
  *
  * CURRENCY UNITS:
@@ -30,9 +31,13 @@ package com.odaishi.asheskingdoms.noapi;
 
 import net.minecraft.entity.player.PlayerEntity;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface NoApi {
+    /** A single balance change in bronze; positive credits, negative debits. */
+    record BalanceOp(UUID playerId, long delta) {}
+
     // PlayerEntity-based methods
     long getBalance(PlayerEntity player);
     boolean deposit(PlayerEntity player, long bronze);
@@ -51,6 +56,9 @@ public interface NoApi {
     boolean tryRemove(PlayerEntity player, long bronze);
     boolean tryAdd(PlayerEntity player, long bronze);
 
+    // Batch methods: all operations succeed or none are applied; offline credits are deferred
+    boolean applyBatch(List<BalanceOp> ops);
+
     // Availability check
     boolean isAvailable();
 }
\ No newline at end of file
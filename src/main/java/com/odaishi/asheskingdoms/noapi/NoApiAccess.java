@@ -31,6 +31,7 @@ package com.odaishi.asheskingdoms.noapi;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.entity.player.PlayerEntity;
 
+import java.util.List;
 import java.util.UUID;
 
 public class NoApiAccess {
@@ -129,6 +130,11 @@ public class NoApiAccess {
                         return false;
                     }
 
+                    @Override
+                    public boolean applyBatch(List<BalanceOp> ops) {
+                        return false;
+                    }
+
                     @Override
                     public boolean isAvailable() {
                         return false;
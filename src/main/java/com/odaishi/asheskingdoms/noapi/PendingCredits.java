@@ -0,0 +1,95 @@
+/**
+ * PENDING CREDIT QUEUE
+ *
+ * Persistent store of credits owed to players who were offline when a batched
+ * payout ran. Amounts are accumulated per player and delivered when the
+ * player next joins the server.
+ *
+ * PERSISTENCE:
+ * - Stored as asheskingdoms/pending_credits.json next to kingdoms.json
+ * - Written once per batch rather than once per credited player; a batch
+ *   whose credits cannot be saved is not queued and reports the failure
+ * - Loaded on server start, independently of kingdoms.json, and saved again on shutdown
+ * - Saving before load() has set the file fails rather than silently doing nothing
+ *
+ * DELIVERY:
+ * - Paid through the active NoApi on join
+ * - Failed deliveries stay queued for the next join
+ */
+
+package com.odaishi.asheskingdoms.noapi;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public final class PendingCredits {
+    private static final Map<UUID, Long> pending = new HashMap<>();
+    private static File file;
+
+    private PendingCredits() {}
+
+    public static void load(File dataDir) throws IOException {
+        file = new File(dataDir, "pending_credits.json");
+        pending.clear();
+        if (!file.exists()) return;
+
+        try (Reader reader = new FileReader(file)) {
+            JsonObject obj = JsonParser.parseReader(reader).getAsJsonObject();
+            obj.keySet().forEach(key -> pending.put(UUID.fromString(key), obj.get(key).getAsLong()));
+        }
+    }
+
+    /** Writes the queue; throws if it was never loaded, so callers cannot mistake a skipped save for a good one. */
+    public static void save() throws IOException {
+        if (file == null) throw new IOException("Pending credits have no data file; load() has not run");
+        file.getParentFile().mkdirs();
+
+        JsonObject obj = new JsonObject();
+        pending.forEach((id, amount) -> obj.addProperty(id.toString(), amount));
+        try (Writer writer = new FileWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(obj, writer);
+        }
+    }
+
+    /** Queues the credits and saves them; if the save fails the queue is left as it was and the error is thrown. */
+    static void addAll(Map<UUID, Long> credits) throws IOException {
+        credits.forEach((id, amount) -> pending.merge(id, amount, Long::sum));
+        try {
+            save();
+        } catch (IOException e) {
+            credits.forEach((id, amount) -> pending.computeIfPresent(id, (key, total) -> total - amount > 0 ? total - amount : null));
+            throw e;
+        }
+    }
+
+    public static long getPending(UUID playerId) { return pending.getOrDefault(playerId, 0L); }
+    public static int size() { return pending.size(); }
+
+    /** Pays out anything queued for this player. */
+    public static void deliver(ServerPlayerEntity player, NoApi api) {
+        Long amount = pending.remove(player.getUuid());
+        if (amount == null || amount <= 0) return;
+
+        if (api.deposit(player, amount)) {
+            saveQuietly();
+        } else {
+            pending.put(player.getUuid(), amount);
+            NOLog.warn("Could not deliver %d pending bronze to %s; keeping it queued", amount, player.getUuid());
+        }
+    }
+
+    private static void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            NOLog.error("Failed to save pending credits: %s", e.getMessage());
+        }
+    }
+}
@@ -28,8 +28,10 @@
 
 package com.odaishi.asheskingdoms.noapi;
 
+import com.odaishi.asheskingdoms.utils.KingdomLog;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.MinecraftServer;
+import java.util.List;
 import java.util.UUID;
 
 import java.lang.reflect.Method;
@@ -55,7 +57,7 @@ public abstract class ReflectionNoApiImpl implements NoApi {
         } catch (ClassNotFoundException e) {
             noAvailable = false; // NO not installed, fallback to internal system
         } catch (Exception e) {
-            e.printStackTrace();
+            NOLog.error("Failed to resolve Numismatic Overhaul purse API: %s", e);
         }
     }
 
@@ -64,7 +66,7 @@ public abstract class ReflectionNoApiImpl implements NoApi {
         try {
             return getMethod.invoke(null, player);
         } catch (Exception e) {
-            e.printStackTrace();
+            KingdomLog.errorLimited("no-purse", "Failed to read purse for {}: {}", player.getUuid(), e.toString());
             return null;
         }
     }
@@ -188,6 +190,11 @@ public abstract class ReflectionNoApiImpl implements NoApi {
         return false;
     }
 
+    @Override
+    public boolean applyBatch(List<BalanceOp> ops) {
+        return EconomyBatch.apply(this, ops);
+    }
+
     @Override
     public boolean isAvailable() {
         return noAvailable;
@@ -42,7 +42,10 @@
 
 package com.odaishi.asheskingdoms.utils;
 
+import com.odaishi.asheskingdoms.metrics.ModMetrics;
+import com.odaishi.asheskingdoms.metrics.jfr.EconomyOpEvent;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Identifier;
 import net.minecraft.registry.Registries;
@@ -54,10 +57,18 @@ public class InventoryCoins {
     private static final String GOLD_ID   = "numismatic-overhaul:gold_coin";
 
     public static long countCoins(PlayerEntity player) {
+        EconomyOpEvent event = new EconomyOpEvent();
+        event.begin();
+        long total = countCoins(player.getInventory());
+        commitEconomyOp(event, "count", player, 0, total);
+        return total;
+    }
+
+    public static long countCoins(Inventory inventory) {
         long totalBronze = 0;
 
-        for (int i = 0; i < player.getInventory().size(); i++) {
-            ItemStack stack = player.getInventory().getStack(i);
+        for (int i = 0; i < inventory.size(); i++) {
+            ItemStack stack = inventory.getStack(i);
             if (stack.isEmpty()) continue;
 
             Identifier itemId = Registries.ITEM.getId(stack.getItem());
@@ -93,28 +104,23 @@ public class InventoryCoins {
      * Returns the actual amount removed (may be more than requested due to coin denominations).
      */
     public static long removeCoins(PlayerEntity player, long bronzeAmount) {
-        long coinsBefore = countCoins(player);
+        EconomyOpEvent event = new EconomyOpEvent();
+        event.begin();
+        long coinsBefore = countCoins(player.getInventory());
         long remaining = bronzeAmount;
 
         // Remove gold coins first (most valuable) - use ceiling division to ensure we remove enough
         remaining = removeCoinType(player, GOLD_ID, remaining, 10000L);
-        if (remaining <= 0) {
-            long coinsAfter = countCoins(player);
-            return coinsBefore - coinsAfter; // Return actual amount removed
-        }
 
         // Then silver coins
-        remaining = removeCoinType(player, SILVER_ID, remaining, 100L);
-        if (remaining <= 0) {
-            long coinsAfter = countCoins(player);
-            return coinsBefore - coinsAfter; // Return actual amount removed
-        }
+        if (remaining > 0) remaining = removeCoinType(player, SILVER_ID, remaining, 100L);
 
         // Finally bronze coins
-        remaining = removeCoinType(player, BRONZE_ID, remaining, 1L);
+        if (remaining > 0) remaining = removeCoinType(player, BRONZE_ID, remaining, 1L);
 
-        long coinsAfter = countCoins(player);
-        return coinsBefore - coinsAfter; // Return actual amount removed
+        long removed = coinsBefore - countCoins(player.getInventory()); // Actual amount removed
+        commitEconomyOp(event, "remove", player, bronzeAmount, removed);
+        return removed;
     }
 
     private static long removeCoinType(PlayerEntity player, String coinId, long remaining, long coinValue) {
@@ -145,6 +151,8 @@ public class InventoryCoins {
      * Helper method to add coins to player inventory (for giving change)
      */
     public static void addCoins(PlayerEntity player, long bronzeAmount) {
+        EconomyOpEvent event = new EconomyOpEvent();
+        event.begin();
         long remaining = bronzeAmount;
 
         // Add gold coins first
@@ -165,6 +173,17 @@ public class InventoryCoins {
         if (remaining > 0) {
             addCoinItem(player, BRONZE_ID, (int)remaining);
         }
+        commitEconomyOp(event, "add", player, bronzeAmount, bronzeAmount);
+    }
+
+    private static void commitEconomyOp(EconomyOpEvent event, String operation, PlayerEntity player, long requested, long result) {
+        ModMetrics.recordEconomyOp(operation, result);
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.player = player.getUuidAsString();
+        event.requested = requested;
+        event.result = result;
+        event.commit();
     }
 
     private static void addCoinItem(PlayerEntity player, String coinId, int count) {
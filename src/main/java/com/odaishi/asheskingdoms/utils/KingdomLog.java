@@ -0,0 +1,85 @@
+/**
+ * ASHES KINGDOMS LOGGER
+ *
+ * Log4j-backed logger for the mod, replacing System.out / System.err output.
+ *
+ * FORMATTING:
+ * - Messages use log4j {} placeholders and are only formatted when the level is
+ *   enabled, so disabled debug lines cost no string building
+ * - Fixed-arity overloads avoid allocating a varargs array for common calls
+ * - A trailing Throwable argument is logged with its stack trace
+ *
+ * RATE LIMITING:
+ * - errorLimited / warnLimited log the first occurrence of a key, then suppress
+ *   repeats for the given window and report how many were dropped on the next
+ *   logged occurrence
+ * - Intended for failures that can repeat every tick, such as a failing save
+ */
+package com.odaishi.asheskingdoms.utils;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class KingdomLog {
+    private static final Logger LOG = LogManager.getLogger("AshesKingdoms");
+    public static final long DEFAULT_WINDOW_MS = 60_000;
+
+    /** Per-key suppression state: [0] = last logged time, [1] = occurrences suppressed since then. */
+    private static final Map<String, long[]> limits = new ConcurrentHashMap<>();
+
+    private KingdomLog() {}
+
+    public static boolean isDebugEnabled() { return LOG.isDebugEnabled(); }
+
+    public static void debug(String message) { LOG.debug(message); }
+    public static void debug(String message, Object p0) { LOG.debug(message, p0); }
+    public static void debug(String message, Object p0, Object p1) { LOG.debug(message, p0, p1); }
+
+    public static void info(String message) { LOG.info(message); }
+    public static void info(String message, Object p0) { LOG.info(message, p0); }
+    public static void info(String message, Object p0, Object p1) { LOG.info(message, p0, p1); }
+    public static void info(String message, Object... params) { LOG.info(message, params); }
+
+    public static void warn(String message) { LOG.warn(message); }
+    public static void warn(String message, Object p0) { LOG.warn(message, p0); }
+    public static void warn(String message, Object p0, Object p1) { LOG.warn(message, p0, p1); }
+    public static void warn(String message, Object... params) { LOG.warn(message, params); }
+
+    public static void error(String message) { LOG.error(message); }
+    public static void error(String message, Object p0) { LOG.error(message, p0); }
+    public static void error(String message, Object p0, Object p1) { LOG.error(message, p0, p1); }
+    public static void error(String message, Object... params) { LOG.error(message, params); }
+
+    /** Logs at most once per {@link #DEFAULT_WINDOW_MS} for the given key. */
+    public static void errorLimited(String key, String message, Object... params) {
+        limited(Level.ERROR, key, DEFAULT_WINDOW_MS, message, params);
+    }
+
+    public static void warnLimited(String key, String message, Object... params) {
+        limited(Level.WARN, key, DEFAULT_WINDOW_MS, message, params);
+    }
+
+    public static void limited(Level level, String key, long windowMs, String message, Object... params) {
+        if (!LOG.isEnabled(level)) return;
+
+        long now = System.currentTimeMillis();
+        long[] state = limits.computeIfAbsent(key, k -> new long[]{Long.MIN_VALUE, 0});
+        long suppressed;
+        synchronized (state) {
+            if (state[0] != Long.MIN_VALUE && now - state[0] < windowMs) {
+                state[1]++;
+                return;
+            }
+            suppressed = state[1];
+            state[0] = now;
+            state[1] = 0;
+        }
+
+        LOG.log(level, message, params);
+        if (suppressed > 0) LOG.log(level, "(previous message repeated {} more times in the last {}s)", suppressed, windowMs / 1000);
+    }
+}
@@ -13,6 +13,23 @@ public class ModConfig {
     public long personalClaimCost = 200;
     public boolean allowPersonalClaims = true;
     public int personalClaimDurationDays = 30;
+    public int upkeepKingdomsPerTick = 2; // Due kingdoms processed per server tick
+    public int protectionTimingSampleRate = 64; // Time 1 in N protection events (1 = all, 0 = off)
+    public boolean metricsFileEnabled = false; // Rewrite a Prometheus text file every metricsIntervalSeconds
+    public String metricsFile = "asheskingdoms/metrics.prom"; // Relative to the server directory
+    public boolean metricsHttpEnabled = false; // Serve /metrics on 127.0.0.1 only
+    public int metricsHttpPort = 9465;
+    public int metricsIntervalSeconds = 15; // How often the metrics snapshot is rebuilt
+    public boolean tickProfilerEnabled = true; // Attribute tick time to mod subsystems
+    public int tickProfilerWindow = 200; // Ticks in the rolling window (10 seconds at 20 TPS)
+    public double tickBudgetWarnFraction = 0.1; // Warn when the mod averages more than this share of 50 ms
+    public boolean borderNotificationsEnabled = true; // Action-bar message when entering/leaving territory
+    public int borderParticleRange = 32; // Blocks around a /kingdom border viewer that get particles (capped by view distance)
+    public int borderParticleIntervalTicks = 10; // Ticks between particle refreshes per viewer
+    public int borderParticleMaxPerViewer = 256; // Particles per refresh per viewer
+    public boolean webMapEnabled = false; // Keep GeoJSON territory files up to date for an offline web map
+    public String webMapDirectory = "asheskingdoms-map"; // Relative to the world folder
+    public int webMapIntervalSeconds = 30; // How often changed regions are rewritten
 
     // No static INSTANCE, just load and return a new instance
     public static ModConfig loadConfig(File configDir) {
@@ -30,7 +47,7 @@ public class ModConfig {
                 }
             }
         } catch (IOException e) {
-            System.err.println("Failed to load config: " + e.getMessage());
+            KingdomLog.error("Failed to load config: {}", e.getMessage());
         }
         return config;
     }
@@ -0,0 +1,53 @@
+/**
+ * CASE-INSENSITIVE PREFIX INDEX
+ *
+ * Sorted set of names supporting "starts with" queries for command tab-completion.
+ *
+ * LOOKUP:
+ * - Names are kept in a TreeMap under a lower-cased key, so a prefix query is a
+ *   subMap range scan: O(log n + results) instead of a pass over every name
+ * - Queries stop after the requested limit, so completion cost does not grow with
+ *   the number of matches
+ * - Names differing only in case are kept as separate entries
+ *
+ * MAINTENANCE:
+ * - Owners add and remove names as the underlying data changes; nothing is
+ *   recomputed on a query
+ */
+package com.odaishi.asheskingdoms.utils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class PrefixIndex {
+    private final TreeMap<String, String> entries = new TreeMap<>();
+
+    public void add(String name) { entries.put(key(name), name); }
+    public void remove(String name) { entries.remove(key(name)); }
+    public void clear() { entries.clear(); }
+    public int size() { return entries.size(); }
+
+    /**
+     * Passes up to {@code limit} names starting with {@code prefix} (ignoring case) that
+     * satisfy {@code filter} to {@code out}, in alphabetical order. Returns how many were passed.
+     */
+    public int forEachMatch(String prefix, int limit, Predicate<String> filter, Consumer<String> out) {
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (Map.Entry<String, String> entry : entries.subMap(lower, true, lower + Character.MAX_VALUE, false).entrySet()) {
+            if (count >= limit) break;
+            if (!filter.test(entry.getValue())) continue;
+            out.accept(entry.getValue());
+            count++;
+        }
+        return count;
+    }
+
+    // Lower-cased name first for ordering and prefix ranges, original appended to keep case variants apart
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT) + '\0' + name;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * ALLOCATION PROFILING HARNESS
+ *
+ * Drives the protection and command paths in a loop on a generated world and
+ * reports bytes allocated per operation, measured with
+ * com.sun.management.ThreadMXBean.getThreadAllocatedBytes on the calling thread.
+ *
+ * PATHS:
+ * - protection.allowed / protection.denied: what a block callback does per
+ *   event, i.e. ChunkPos from a BlockPos, the capture lock check, the
+ *   KingdomProtection decision and, when denied, the §-coded chat Text
+ * - command.info: the message built by /kingdom info
+ * - command.list: one page of /kingdom list from the summary cache
+ * - command.claim: frontier adjacency, the headless claim core and the
+ *   confirmation Text (each iteration claims a new chunk, so territory grows)
+ *
+ * TRACKING:
+ * - Bytes per operation are checked against allocation-budgets.properties
+ * - Every run appends one row per path to a CSV history file so trends can be
+ *   graphed across commits
+ *
+ * USAGE:
+ *   ./gradlew allocationProfile [-Piterations=20000] [-Phistory=perf-history/allocations.csv]
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import com.odaishi.asheskingdoms.commands.KingdomCommand;
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.KingdomProtection;
+import com.odaishi.asheskingdoms.kingdoms.KingdomSummaryCache;
+import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import com.odaishi.asheskingdoms.metrics.PerfStats;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+public final class AllocationHarness {
+    private static final int WARMUP = 5_000;
+    private static final int PROBES = 1024;
+
+    private final Map<String, Double> results = new LinkedHashMap<>();
+    private long sink;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = Options.parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "20000"));
+        File history = new File(options.getOrDefault("history", "perf-history/allocations.csv"));
+
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        if (PerfStats.allocatedBytes(Thread.currentThread()) < 0) {
+            System.out.println("Thread allocation measurement is not supported by this JVM; nothing to report");
+            return;
+        }
+
+        new WorldGenerator(42).generate(200, 20_000);
+        AllocationHarness harness = new AllocationHarness();
+        harness.run(iterations);
+
+        Budgets budgets = new Budgets("allocation-budgets.properties");
+        System.out.printf("Allocation per operation (%d iterations):%n", iterations);
+        harness.results.forEach((path, bytes) -> budgets.check(path + ".bytes", bytes));
+        appendHistory(history, harness.results);
+        budgets.finish("Allocation budgets");
+    }
+
+    private void run(int iterations) {
+        Random random = new Random(7);
+        List<Kingdom> kingdoms = new ArrayList<>(KingdomManager.getAllKingdoms());
+
+        // Member standing inside their own territory vs an outsider poking at it
+        BlockPos[] blocks = new BlockPos[PROBES];
+        UUID[] members = new UUID[PROBES];
+        UUID outsider = new UUID(random.nextLong(), random.nextLong());
+        Kingdom[] owners = new Kingdom[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            Kingdom k = kingdoms.get(random.nextInt(kingdoms.size()));
+            ChunkPos home = k.getHomeChunk();
+            owners[i] = k;
+            members[i] = k.getOwner();
+            blocks[i] = new BlockPos(home.getStartX() + random.nextInt(16), 64, home.getStartZ() + random.nextInt(16));
+        }
+
+        measure("protection.allowed", iterations, i -> protect(members[i & (PROBES - 1)], blocks[i & (PROBES - 1)]));
+        measure("protection.denied", iterations, i -> protect(outsider, blocks[i & (PROBES - 1)]));
+        measure("command.info", iterations, i -> {
+            Kingdom k = owners[i & (PROBES - 1)];
+            sink += KingdomCommand.buildKingdomInfo(k, "Owner", k.getRank(k.getOwner()), System.currentTimeMillis()).hashCode();
+        });
+        KingdomSummaryCache.Sort[] sorts = KingdomSummaryCache.Sort.values();
+        measure("command.list", iterations, i -> sink += KingdomSummaryCache.renderPage(sorts[i % sorts.length], 1 + i % 5).hashCode());
+        measure("command.claim", iterations, i -> claim(owners[i & (PROBES - 1)], random));
+    }
+
+    /** The work a block callback does for one event. */
+    private void protect(UUID player, BlockPos pos) {
+        ChunkPos chunkPos = new ChunkPos(pos);
+        if (KingdomWarManager.isChunkBeingCaptured(chunkPos)) return;
+        KingdomProtection.Outcome outcome = KingdomProtection.evaluate(player, chunkPos, "build");
+        if (!outcome.isAllowed()) sink += Text.of("§cYou don't have permission to build here!").hashCode();
+    }
+
+    private void claim(Kingdom kingdom, Random random) {
+        Set<ChunkPos> ring = kingdom.getOuterRing();
+        ChunkPos edge = ring.isEmpty() ? kingdom.getHomeChunk() : ring.iterator().next();
+        ChunkPos target = switch (random.nextInt(4)) {
+            case 0 -> new ChunkPos(edge.x + 1, edge.z);
+            case 1 -> new ChunkPos(edge.x - 1, edge.z);
+            case 2 -> new ChunkPos(edge.x, edge.z + 1);
+            default -> new ChunkPos(edge.x, edge.z - 1);
+        };
+        if (kingdom.isAdjacent(target) && KingdomManager.claimChunkForKingdom(kingdom, target)) {
+            sink += Text.of("§aClaimed for " + kingdom.getName() + "!").hashCode();
+        }
+    }
+
+    private void measure(String path, int iterations, IntConsumer operation) {
+        for (int i = 0; i < Math.min(WARMUP, iterations); i++) operation.accept(i);
+
+        Thread thread = Thread.currentThread();
+        long before = PerfStats.allocatedBytes(thread);
+        for (int i = 0; i < iterations; i++) operation.accept(i);
+        long after = PerfStats.allocatedBytes(thread);
+
+        results.put(path, (double) (after - before) / iterations);
+        if (sink == 42) System.out.println();
+    }
+
+    private static void appendHistory(File history, Map<String, Double> results) throws IOException {
+        if (history.getParentFile() != null) history.getParentFile().mkdirs();
+        boolean header = !history.exists();
+        String when = Instant.now().toString();
+        String revision = Objects.requireNonNullElse(System.getenv("GIT_COMMIT"), "");
+        try (Writer writer = new FileWriter(history, true)) {
+            if (header) writer.write("timestamp,revision,path,bytes_per_op\n");
+            for (Map.Entry<String, Double> entry : results.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%s,%.1f%n", when, revision, entry.getKey(), entry.getValue()));
+            }
+        }
+        System.out.println("History appended to " + history.getPath());
+    }
+}
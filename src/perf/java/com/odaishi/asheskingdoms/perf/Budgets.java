@@ -0,0 +1,59 @@
+/**
+ * PERFORMANCE BUDGETS
+ *
+ * Loads named numeric limits from a properties file on the perf classpath and
+ * checks measurements against them, printing one line per check.
+ *
+ * FILE FORMAT:
+ * - <name>=<limit>, units are part of the name (e.g. getKingdomAt.ns)
+ * - A missing budget is reported but does not fail the run, so new
+ *   measurements can be added before their budget is agreed
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+final class Budgets {
+    private final String resource;
+    private final Properties limits = new Properties();
+    private final List<String> failures = new ArrayList<>();
+
+    Budgets(String resource) throws IOException {
+        this.resource = resource;
+        try (InputStream in = Budgets.class.getResourceAsStream("/" + resource)) {
+            if (in == null) throw new IOException("Budget file not found on classpath: " + resource);
+            limits.load(in);
+        }
+    }
+
+    /** Compares a measurement against its budget; returns true if within budget or unbudgeted. */
+    boolean check(String name, double measured) {
+        String limit = limits.getProperty(name);
+        if (limit == null) {
+            System.out.printf("  %-34s %14.1f   (no budget in %s)%n", name, measured, resource);
+            return true;
+        }
+        double max = Double.parseDouble(limit.trim());
+        boolean ok = measured <= max;
+        System.out.printf("  %-34s %14.1f / %-12s %s%n", name, measured, limit.trim(), ok ? "ok" : "OVER BUDGET");
+        if (!ok) failures.add(name + " = " + measured + " (budget " + limit.trim() + ")");
+        return ok;
+    }
+
+    List<String> failures() { return failures; }
+
+    /** Prints the verdict and exits non-zero if any budget was exceeded. */
+    void finish(String suite) {
+        if (failures.isEmpty()) {
+            System.out.println(suite + ": all budgets met");
+            return;
+        }
+        System.out.println(suite + ": " + failures.size() + " budget(s) exceeded:");
+        failures.forEach(f -> System.out.println("  " + f));
+        System.exit(1);
+    }
+}
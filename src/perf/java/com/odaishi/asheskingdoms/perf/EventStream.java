@@ -0,0 +1,109 @@
+/**
+ * REPLAY EVENT STREAM
+ *
+ * Records and reads streams of ReplayEvents. When no captured stream is
+ * available, synthesizes one from the loaded world with a traffic mix that
+ * resembles a live server.
+ *
+ * SYNTHETIC MIX:
+ * - Mostly block attacks and block uses, largely by members inside or near
+ *   their own territory, with visitors and outsiders mixed in
+ * - Some raw ownership lookups (chat, maps, border messages)
+ * - Occasional claims on a kingdom's frontier and capture attempts in wars
+ * - A full save every SAVE_EVERY events, as commands trigger today
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+public final class EventStream {
+    private static final int SAVE_EVERY = 5000;
+    private static final String[] ATTACK_PERMISSIONS = {"build", "destroy"};
+    private static final String[] USE_PERMISSIONS = {"container", "door", "switch", null, null};
+
+    private EventStream() {}
+
+    public static List<ReplayEvent> synthesize(Collection<Kingdom> world, int count, long seed) {
+        Random random = new Random(seed);
+        List<Kingdom> kingdoms = new ArrayList<>(world);
+        List<KingdomWarManager.War> wars = KingdomWarManager.getAllWars().stream().filter(w -> w.active).toList();
+        List<ReplayEvent> events = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && i % SAVE_EVERY == 0) {
+                events.add(new ReplayEvent(ReplayEvent.Op.SAVE, new UUID(0, 0), new ChunkPos(0, 0), null));
+                continue;
+            }
+
+            Kingdom home = kingdoms.get(random.nextInt(kingdoms.size()));
+            Kingdom visited = random.nextDouble() < 0.7 ? home : kingdoms.get(random.nextInt(kingdoms.size()));
+            UUID player = random.nextDouble() < 0.9 ? randomMember(home, random) : new UUID(random.nextLong(), random.nextLong());
+            ChunkPos chunk = random.nextDouble() < 0.8 ? randomClaim(visited, random) : nearby(randomClaim(visited, random), random);
+
+            double roll = random.nextDouble();
+            if (roll < 0.45) {
+                events.add(new ReplayEvent(ReplayEvent.Op.ATTACK_BLOCK, player, chunk, ATTACK_PERMISSIONS[random.nextInt(2)]));
+            } else if (roll < 0.85) {
+                events.add(new ReplayEvent(ReplayEvent.Op.USE_BLOCK, player, chunk, USE_PERMISSIONS[random.nextInt(USE_PERMISSIONS.length)]));
+            } else if (roll < 0.95) {
+                events.add(new ReplayEvent(ReplayEvent.Op.LOOKUP, player, chunk, null));
+            } else if (roll < 0.98 || wars.isEmpty()) {
+                ChunkPos frontier = nearby(randomClaim(home, random), random);
+                events.add(new ReplayEvent(ReplayEvent.Op.CLAIM, home.getOwner(), frontier, home.getName()));
+            } else {
+                KingdomWarManager.War war = wars.get(random.nextInt(wars.size()));
+                Kingdom defender = world.stream().filter(k -> k.getName().equals(war.defender)).findFirst().orElse(home);
+                events.add(new ReplayEvent(ReplayEvent.Op.CAPTURE, player, randomClaim(defender, random), war.attacker));
+            }
+        }
+        return events;
+    }
+
+    private static UUID randomMember(Kingdom kingdom, Random random) {
+        List<UUID> members = new ArrayList<>(kingdom.getMembers().keySet());
+        return members.get(random.nextInt(members.size()));
+    }
+
+    private static ChunkPos randomClaim(Kingdom kingdom, Random random) {
+        // Walk a random distance from home along the distance buckets instead of copying the claim set
+        int radius = Math.max(0, kingdom.getTerritoryRadius());
+        Set<ChunkPos> ring = kingdom.getClaimsAtDistance(random.nextInt(radius + 1));
+        if (ring.isEmpty()) return kingdom.getHomeChunk();
+        int skip = random.nextInt(ring.size());
+        Iterator<ChunkPos> it = ring.iterator();
+        while (skip-- > 0) it.next();
+        return it.next();
+    }
+
+    private static ChunkPos nearby(ChunkPos chunk, Random random) {
+        return new ChunkPos(chunk.x + random.nextInt(5) - 2, chunk.z + random.nextInt(5) - 2);
+    }
+
+    public static void write(List<ReplayEvent> events, File file) throws IOException {
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (ReplayEvent event : events) {
+                writer.write(event.toLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static List<ReplayEvent> read(File file) throws IOException {
+        List<ReplayEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) events.add(ReplayEvent.parse(line));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * LOAD REPLAY HARNESS
+ *
+ * Replays a stream of protection events and commands against KingdomManager
+ * and KingdomWarManager with no server, network or game client, and reports
+ * throughput and latency percentiles per operation.
+ *
+ * FLOW:
+ * - Loads a generated kingdoms.json, generating one first if it is missing
+ * - Declares a war for every mutual enemy pair, at no cost
+ * - Reads the event stream, recording a synthetic one first if it is missing
+ * - Replays every event once, timing each with System.nanoTime
+ *
+ * OPERATIONS:
+ * - ATTACK_BLOCK / USE_BLOCK: capture lock check plus KingdomProtection.evaluate,
+ *   exactly as the protection callbacks run them
+ * - LOOKUP: KingdomManager.getKingdomAt
+ * - CLAIM: adjacency check plus the headless claim core
+ * - CAPTURE: KingdomWarManager.captureClaim
+ * - SAVE: a full save to a temporary file
+ *
+ * USAGE:
+ *   ./gradlew replayLoad -Pworld=build/perf/kingdoms.json -Pevents=build/perf/events.txt -Pcount=200000
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.KingdomProtection;
+import com.odaishi.asheskingdoms.kingdoms.KingdomWarManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public final class LoadReplay {
+    private final Map<ReplayEvent.Op, long[]> samples = new EnumMap<>(ReplayEvent.Op.class);
+    private final Map<ReplayEvent.Op, Integer> counts = new EnumMap<>(ReplayEvent.Op.class);
+    private final File saveTarget;
+    private long sink;
+
+    private LoadReplay(File saveTarget) {
+        this.saveTarget = saveTarget;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = Options.parse(args);
+        File worldFile = new File(options.getOrDefault("world", "build/perf/kingdoms.json"));
+        File eventsFile = new File(options.getOrDefault("events", "build/perf/events.txt"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+
+        if (!worldFile.exists()) {
+            new WorldGenerator(seed).generate(Integer.parseInt(options.getOrDefault("kingdoms", "100")),
+                    Integer.parseInt(options.getOrDefault("claims", "10000")));
+            KingdomManager.saveToFile(worldFile);
+        }
+        KingdomManager.loadFromFile(worldFile);
+        int wars = declareWars();
+
+        if (!eventsFile.exists() || options.containsKey("record")) {
+            int count = Integer.parseInt(options.getOrDefault("count", "200000"));
+            EventStream.write(EventStream.synthesize(KingdomManager.getAllKingdoms(), count, seed), eventsFile);
+        }
+        List<ReplayEvent> events = EventStream.read(eventsFile);
+
+        System.out.printf("World: %d kingdoms, %d claims, %d wars; replaying %d events from %s%n",
+                KingdomManager.getAllKingdoms().size(),
+                KingdomManager.getAllKingdoms().stream().mapToInt(Kingdom::getClaimCount).sum(),
+                wars, events.size(), eventsFile.getPath());
+
+        File saveTarget = File.createTempFile("asheskingdoms-replay", ".json");
+        try {
+            new LoadReplay(saveTarget).run(events);
+        } finally {
+            saveTarget.delete();
+        }
+    }
+
+    private static int declareWars() {
+        int declared = 0;
+        for (Kingdom attacker : List.copyOf(KingdomManager.getAllKingdoms())) {
+            for (String defender : attacker.getEnemies()) {
+                if (attacker.getName().compareTo(defender) < 0
+                        && KingdomWarManager.declareWar(attacker.getName(), defender, 0).isPresent()) {
+                    declared++;
+                }
+            }
+        }
+        return declared;
+    }
+
+    private void run(List<ReplayEvent> events) throws IOException {
+        long start = System.nanoTime();
+        for (ReplayEvent event : events) {
+            long t0 = System.nanoTime();
+            execute(event);
+            record(event.op(), System.nanoTime() - t0);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Total: %d events in %.1f ms (%.0f events/s)%n",
+                events.size(), elapsed / 1e6, events.size() / (elapsed / 1e9));
+        System.out.printf("%-13s %9s %12s %10s %10s %10s %10s%n", "op", "count", "ops/s", "p50 us", "p90 us", "p99 us", "max us");
+        counts.forEach((op, count) -> {
+            long[] latencies = Arrays.copyOf(samples.get(op), count);
+            Arrays.sort(latencies);
+            long total = Arrays.stream(latencies).sum();
+            System.out.printf("%-13s %9d %12.0f %10.2f %10.2f %10.2f %10.2f%n", op, count,
+                    count / (total / 1e9), percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.90) / 1e3,
+                    percentile(latencies, 0.99) / 1e3, latencies[count - 1] / 1e3);
+        });
+        if (sink == 42) System.out.println(); // keeps results observable to the JIT
+    }
+
+    private void execute(ReplayEvent event) throws IOException {
+        switch (event.op()) {
+            case ATTACK_BLOCK, USE_BLOCK -> {
+                if (KingdomWarManager.isChunkBeingCaptured(event.chunk())) { sink++; return; }
+                sink += KingdomProtection.evaluate(event.player(), event.chunk(), event.argument()).ordinal();
+            }
+            case LOOKUP -> { if (KingdomManager.getKingdomAt(event.chunk()) != null) sink++; }
+            case CLAIM -> {
+                Kingdom kingdom = KingdomManager.getKingdom(event.argument());
+                if (kingdom != null && kingdom.isAdjacent(event.chunk())
+                        && KingdomManager.claimChunkForKingdom(kingdom, event.chunk())) sink++;
+            }
+            case CAPTURE -> { if (KingdomWarManager.captureClaim(event.chunk(), event.argument(), null)) sink++; }
+            case SAVE -> {
+                KingdomManager.saveToFile(saveTarget);
+                sink += saveTarget.length();
+            }
+        }
+    }
+
+    private void record(ReplayEvent.Op op, long nanos) {
+        int count = counts.getOrDefault(op, 0);
+        long[] buffer = samples.computeIfAbsent(op, o -> new long[1024]);
+        if (count == buffer.length) samples.put(op, buffer = Arrays.copyOf(buffer, count * 2));
+        buffer[count] = nanos;
+        counts.put(op, count + 1);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * COMMAND LINE OPTIONS
+ *
+ * Minimal --key value parser shared by the perf entry points.
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Options {
+    private Options() {}
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            String value = i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true";
+            options.put(key, value);
+        }
+        return options;
+    }
+}
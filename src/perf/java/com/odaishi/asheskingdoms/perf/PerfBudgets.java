@@ -0,0 +1,138 @@
+/**
+ * PERFORMANCE REGRESSION BUDGETS
+ *
+ * Headless budget checks against generated worlds. Fails when a hot path
+ * exceeds its budget, so a refactor cannot silently bring back a linear scan
+ * or a slower save.
+ *
+ * SCALING GUARD (--scaling, perfScaling task, part of `check`):
+ * - The same lookups are timed on a 5-kingdom / 500-claim world and on a
+ *   500-kingdom / 50k-claim world, and the large/small ratio is checked
+ * - Index lookups stay within a small constant factor; a scan over kingdoms or
+ *   claims grows about 100x, so the ratio catches it on any machine speed
+ * - *.scaling budgets: getKingdomAt, protectionEvaluate, getKingdomOfPlayer
+ *
+ * ABSOLUTE BUDGETS (default, perfBudgets task, or `check -PwithPerfBudgets`):
+ * - getKingdomAt.ns: average chunk ownership lookup
+ * - protectionEvaluate.ns: average KingdomProtection.evaluate decision
+ * - fullSave.ms: one save of every kingdom (saves always rewrite the whole
+ *   file; there is no per-kingdom dirty save to measure)
+ * - startupLoad.ms: loading the saved world from disk
+ * - Wall-clock numbers depend on the machine, so these are opt-in for `check`
+ *
+ * METHOD:
+ * - Lookups are warmed up, then timed in several rounds; the median round is
+ *   compared so one GC pause or noisy neighbour does not fail the build
+ * - Budgets live in perf-budgets.properties with generous headroom for CI machines
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import com.odaishi.asheskingdoms.kingdoms.KingdomProtection;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public final class PerfBudgets {
+    private static final int KINGDOMS = 500;
+    private static final int CLAIMS = 50_000;
+    private static final int SMALL_KINGDOMS = 5;
+    private static final int SMALL_CLAIMS = 500;
+    private static final int PROBES = 1 << 14;
+    private static final int ROUNDS = 7;
+    private static final String[] PERMISSIONS = {"build", "destroy", "container", "door", "switch"};
+
+    private static long sink;
+
+    public static void main(String[] args) throws IOException {
+        Budgets budgets = new Budgets("perf-budgets.properties");
+        if (Options.parse(args).containsKey("scaling")) {
+            scaling(budgets);
+            return;
+        }
+        List<Kingdom> world = new WorldGenerator(42).generate(KINGDOMS, CLAIMS);
+        System.out.printf("Perf budgets: %d kingdoms, %d claims%n", world.size(),
+                world.stream().mapToInt(Kingdom::getClaimCount).sum());
+
+        File file = File.createTempFile("asheskingdoms-budget", ".json");
+        try {
+            KingdomManager.saveToFile(file); // warm up serialization
+            long start = System.nanoTime();
+            KingdomManager.saveToFile(file);
+            budgets.check("fullSave.ms", (System.nanoTime() - start) / 1e6);
+
+            start = System.nanoTime();
+            KingdomManager.loadFromFile(file);
+            budgets.check("startupLoad.ms", (System.nanoTime() - start) / 1e6);
+        } finally {
+            file.delete();
+        }
+
+        Lookups lookups = measureLookups();
+        budgets.check("getKingdomAt.ns", lookups.getKingdomAt());
+        budgets.check("protectionEvaluate.ns", lookups.protectionEvaluate());
+
+        if (sink == 42) System.out.println();
+        budgets.finish("Perf budgets");
+    }
+
+    /** Checks how lookup cost grows from a small world to a 100x larger one; independent of machine speed. */
+    private static void scaling(Budgets budgets) {
+        new WorldGenerator(42).generate(SMALL_KINGDOMS, SMALL_CLAIMS);
+        Lookups small = measureLookups();
+        new WorldGenerator(42).generate(KINGDOMS, CLAIMS);
+        Lookups large = measureLookups();
+        System.out.printf("Perf scaling: %d -> %d claims (large/small time per lookup)%n", SMALL_CLAIMS, CLAIMS);
+
+        budgets.check("getKingdomAt.scaling", large.getKingdomAt() / small.getKingdomAt());
+        budgets.check("protectionEvaluate.scaling", large.protectionEvaluate() / small.protectionEvaluate());
+        budgets.check("getKingdomOfPlayer.scaling", large.getKingdomOfPlayer() / small.getKingdomOfPlayer());
+
+        if (sink == 42) System.out.println();
+        budgets.finish("Perf scaling");
+    }
+
+    private record Lookups(double getKingdomAt, double protectionEvaluate, double getKingdomOfPlayer) {}
+
+    /** Median ns per lookup against whatever world KingdomManager currently holds. */
+    private static Lookups measureLookups() {
+        Random random = new Random(7);
+        List<Kingdom> kingdoms = new ArrayList<>(KingdomManager.getAllKingdoms());
+        ChunkPos[] chunks = new ChunkPos[PROBES];
+        UUID[] players = new UUID[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            Kingdom k = kingdoms.get(random.nextInt(kingdoms.size()));
+            List<UUID> members = new ArrayList<>(k.getMembers().keySet());
+            players[i] = members.get(random.nextInt(members.size()));
+            ChunkPos home = k.getHomeChunk();
+            chunks[i] = new ChunkPos(home.x + random.nextInt(41) - 20, home.z + random.nextInt(41) - 20);
+        }
+
+        double getKingdomAt = medianNanosPerOp(() -> {
+            for (ChunkPos chunk : chunks) if (KingdomManager.getKingdomAt(chunk) != null) sink++;
+        });
+        double protectionEvaluate = medianNanosPerOp(() -> {
+            for (int i = 0; i < PROBES; i++) sink += KingdomProtection.evaluate(players[i], chunks[i], PERMISSIONS[i % PERMISSIONS.length]).ordinal();
+        });
+        double getKingdomOfPlayer = medianNanosPerOp(() -> {
+            for (UUID player : players) if (KingdomManager.getKingdomOfPlayer(player) != null) sink++;
+        });
+        return new Lookups(getKingdomAt, protectionEvaluate, getKingdomOfPlayer);
+    }
+
+    /** Runs a pass over all probes ROUNDS times after warm-up and returns the median ns per probe. */
+    private static double medianNanosPerOp(Runnable pass) {
+        for (int i = 0; i < 3; i++) pass.run();
+        double[] rounds = new double[ROUNDS];
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            pass.run();
+            rounds[r] = (double) (System.nanoTime() - start) / PROBES;
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * REPLAY EVENT
+ *
+ * One recorded protection event or command, stored as a single text line:
+ *   <op> <player uuid> <chunk x> <chunk z> <argument>
+ *
+ * ARGUMENTS:
+ * - ATTACK_BLOCK / USE_BLOCK: the permission checked, "-" for none
+ * - CLAIM: the claiming kingdom
+ * - CAPTURE: the capturing kingdom
+ * - LOOKUP / SAVE: unused, "-"
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.UUID;
+
+public record ReplayEvent(Op op, UUID player, ChunkPos chunk, String argument) {
+    public enum Op { ATTACK_BLOCK, USE_BLOCK, LOOKUP, CLAIM, CAPTURE, SAVE }
+
+    public String toLine() {
+        return op + " " + player + " " + chunk.x + " " + chunk.z + " " + (argument == null ? "-" : argument);
+    }
+
+    public static ReplayEvent parse(String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != 5) throw new IllegalArgumentException("Malformed replay event: " + line);
+        return new ReplayEvent(Op.valueOf(parts[0]), UUID.fromString(parts[1]),
+                new ChunkPos(Integer.parseInt(parts[2]), Integer.parseInt(parts[3])),
+                parts[4].equals("-") ? null : parts[4]);
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * SYNTHETIC WORLD GENERATOR
+ *
+ * Produces realistic, reproducible kingdoms.json datasets for load testing,
+ * without a server or game client.
+ *
+ * LAYOUT:
+ * - Kingdoms are grouped around cluster centres, as players settle near spawn
+ *   and near each other rather than uniformly across the map
+ * - Each territory grows outward from its home chunk as one connected region
+ * - Territory sizes are heavy-tailed: a few large kingdoms, many small ones
+ *
+ * POPULATION:
+ * - Member counts are heavy-tailed as well, with ranks weighted towards members
+ * - A share of members hold personal claims inside their kingdom
+ * - Neighbouring kingdoms in the same cluster become mutual enemies or allies;
+ *   enemy pairs are turned into wars by the replay harness
+ * - Treasuries are randomised so upkeep and war costs see varied balances
+ *
+ * USAGE:
+ *   ./gradlew generateWorld -Pkingdoms=1000 -Pclaims=100000 -Pseed=1 -Pout=build/perf/kingdoms.json
+ */
+package com.odaishi.asheskingdoms.perf;
+
+import com.odaishi.asheskingdoms.kingdoms.Kingdom;
+import com.odaishi.asheskingdoms.kingdoms.KingdomManager;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public final class WorldGenerator {
+    private static final String[] MEMBER_RANKS = {
+            Kingdom.RANK_ASSISTANT, Kingdom.RANK_OFFICER, Kingdom.RANK_OFFICER,
+            Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER, Kingdom.RANK_MEMBER,
+            Kingdom.RANK_ALLY
+    };
+    private static final int KINGDOMS_PER_CLUSTER = 20;
+    private static final double ENEMY_CHANCE = 0.3, ALLY_CHANCE = 0.2, PERSONAL_CLAIM_CHANCE = 0.2;
+
+    private final Random random;
+    private final Set<ChunkPos> occupied = new HashSet<>();
+    private final List<ChunkPos> clusterCentres = new ArrayList<>();
+    private final List<List<Kingdom>> clusters = new ArrayList<>();
+
+    public WorldGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /** Generates the world and installs it into KingdomManager, replacing whatever was loaded. */
+    public List<Kingdom> generate(int kingdomCount, int totalClaims) {
+        int clusterCount = Math.max(1, kingdomCount / KINGDOMS_PER_CLUSTER);
+        int spread = (int) Math.ceil(Math.sqrt((double) totalClaims / clusterCount)) + 8;
+        int worldRadius = spread * (int) Math.ceil(Math.sqrt(clusterCount)) * 2;
+        for (int c = 0; c < clusterCount; c++) {
+            clusterCentres.add(new ChunkPos(random.nextInt(2 * worldRadius + 1) - worldRadius,
+                    random.nextInt(2 * worldRadius + 1) - worldRadius));
+            clusters.add(new ArrayList<>());
+        }
+
+        int[] sizes = territorySizes(kingdomCount, totalClaims);
+        List<Kingdom> result = new ArrayList<>(kingdomCount);
+        for (int i = 0; i < kingdomCount; i++) {
+            int cluster = random.nextInt(clusterCount);
+            ChunkPos centre = clusterCentres.get(cluster);
+            ChunkPos home = nearestFree(new ChunkPos(
+                    centre.x + (int) (random.nextGaussian() * spread),
+                    centre.z + (int) (random.nextGaussian() * spread)));
+
+            Kingdom kingdom = populate("Kingdom" + i, home, growTerritory(home, sizes[i]));
+            clusters.get(cluster).add(kingdom);
+            result.add(kingdom);
+        }
+
+        clusters.forEach(this::assignRelations);
+
+        KingdomManager.kingdoms.clear();
+        result.forEach(k -> KingdomManager.kingdoms.put(k.getName(), k));
+        KingdomManager.reindex();
+        return result;
+    }
+
+    /** Heavy-tailed (Pareto) territory sizes, scaled so they add up to roughly {@code totalClaims}. */
+    private int[] territorySizes(int kingdomCount, int totalClaims) {
+        double[] weights = new double[kingdomCount];
+        double sum = 0;
+        for (int i = 0; i < kingdomCount; i++) {
+            weights[i] = Math.pow(1 - random.nextDouble(), -1 / 1.5);
+            sum += weights[i];
+        }
+        int[] sizes = new int[kingdomCount];
+        for (int i = 0; i < kingdomCount; i++) sizes[i] = Math.max(1, (int) Math.round(weights[i] / sum * totalClaims));
+        return sizes;
+    }
+
+    private ChunkPos nearestFree(ChunkPos start) {
+        for (int r = 0; ; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != r) continue;
+                    ChunkPos candidate = new ChunkPos(start.x + dx, start.z + dz);
+                    if (!occupied.contains(candidate)) return candidate;
+                }
+            }
+        }
+    }
+
+    /** Grows a connected territory by claiming random free chunks on its frontier. */
+    private Set<ChunkPos> growTerritory(ChunkPos home, int size) {
+        Set<ChunkPos> territory = new LinkedHashSet<>();
+        List<ChunkPos> frontier = new ArrayList<>();
+        territory.add(home);
+        occupied.add(home);
+        frontier.add(home);
+
+        while (territory.size() < size && !frontier.isEmpty()) {
+            int index = random.nextInt(frontier.size());
+            ChunkPos from = frontier.get(index);
+            List<ChunkPos> free = new ArrayList<>(4);
+            for (ChunkPos next : new ChunkPos[]{
+                    new ChunkPos(from.x + 1, from.z), new ChunkPos(from.x - 1, from.z),
+                    new ChunkPos(from.x, from.z + 1), new ChunkPos(from.x, from.z - 1)}) {
+                if (!occupied.contains(next)) free.add(next);
+            }
+            if (free.isEmpty()) {
+                frontier.set(index, frontier.get(frontier.size() - 1));
+                frontier.remove(frontier.size() - 1);
+                continue;
+            }
+            ChunkPos claimed = free.get(random.nextInt(free.size()));
+            territory.add(claimed);
+            occupied.add(claimed);
+            frontier.add(claimed);
+        }
+        return territory;
+    }
+
+    private Kingdom populate(String name, ChunkPos home, Set<ChunkPos> territory) {
+        UUID leader = nextUuid();
+        Map<UUID, String> members = new HashMap<>();
+        members.put(leader, Kingdom.RANK_LEADER);
+        int memberCount = (int) Math.min(200, Math.pow(1 - random.nextDouble(), -1 / 1.2));
+        for (int m = 0; m < memberCount; m++) members.put(nextUuid(), MEMBER_RANKS[random.nextInt(MEMBER_RANKS.length)]);
+
+        Kingdom kingdom = new Kingdom(name, leader, members, territory, home);
+        kingdom.deposit(1 + random.nextInt(1_000_000));
+
+        List<ChunkPos> chunks = new ArrayList<>(territory);
+        members.forEach((id, rank) -> {
+            if (rank.equals(Kingdom.RANK_ALLY) || random.nextDouble() >= PERSONAL_CLAIM_CHANCE) return;
+            int count = 1 + random.nextInt(2);
+            for (int c = 0; c < count; c++) {
+                ChunkPos chunk = chunks.get(random.nextInt(chunks.size()));
+                if (!chunk.equals(home)) kingdom.addPersonalClaim(chunk, id);
+            }
+        });
+        return kingdom;
+    }
+
+    private void assignRelations(List<Kingdom> cluster) {
+        for (int i = 0; i + 1 < cluster.size(); i++) {
+            Kingdom a = cluster.get(i);
+            Kingdom b = cluster.get(i + 1 + random.nextInt(cluster.size() - i - 1));
+            double roll = random.nextDouble();
+            if (roll < ENEMY_CHANCE) {
+                a.addEnemy(b.getName());
+                b.addEnemy(a.getName());
+            } else if (roll < ENEMY_CHANCE + ALLY_CHANCE) {
+                a.addAlly(b.getName());
+                b.addAlly(a.getName());
+            }
+        }
+    }
+
+    private UUID nextUuid() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = Options.parse(args);
+        int kingdoms = Integer.parseInt(options.getOrDefault("kingdoms", "100"));
+        int claims = Integer.parseInt(options.getOrDefault("claims", "10000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        File out = new File(options.getOrDefault("out", "build/perf/kingdoms.json"));
+
+        List<Kingdom> generated = new WorldGenerator(seed).generate(kingdoms, claims);
+        KingdomManager.saveToFile(out);
+
+        int totalClaims = generated.stream().mapToInt(Kingdom::getClaimCount).sum();
+        int totalMembers = generated.stream().mapToInt(k -> k.getMembers().size()).sum();
+        System.out.printf("Generated %d kingdoms, %d claims, %d members -> %s (%d bytes)%n",
+                generated.size(), totalClaims, totalMembers, out.getPath(), out.length());
+    }
+}